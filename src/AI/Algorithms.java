@@ -2,100 +2,606 @@ package AI;
 
 import Stratego.Board;
 
+import java.util.Objects;
+import java.util.function.Function;
+
 /**
  * For use a various algorithm to play Stratego game (enemies).
+ * The methods only search the move, the caller plays it on its board.
+ * Every call makes its own engine with a small transposition table of TABLE_SIZE_MB megabytes, so the methods
+ * can be used by many games on other threads at the same time and keep no memory between the calls.
+ * The callers which want to keep the table between the moves of the game search with their own engine instances.
+ * The Monte Carlo Tree Search methods keep the engine of the thread between the calls, so the search of the next
+ * move starts from the subtree of the played moves, until the thread calls releaseEngines().
+ * The AlphaBeta Pruning methods with the time limit solve the boards with at most ENDGAME_EMPTY_FIELDS
+ * empty fields exactly by the endgame solver, if it finishes in the time limit. The methods with the depth limit
+ * never switch to the solver, so their time depends on the depth only.
  */
 public class Algorithms {
+    //Deadline of the search without the time limit
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+    //The time of the search is checked every TIME_CHECK_NODES + 1 nodes
+    static final int TIME_CHECK_NODES = 0x3FF;
+    //Boards with at most this number of empty fields are solved to the end by the endgame solver
+    //before the iterative deepening. Stratego.EndgameBenchmark solves 16 empty fields in about 8 ms on average
+    //and 60 ms at most, from 17 empty fields some positions take hundreds of milliseconds
+    public static final int ENDGAME_EMPTY_FIELDS = 16;
+
+    //Size of the transposition tables of the engines made by the methods in megabytes
+    public static final int TABLE_SIZE_MB = 1;
+
+    //Monte Carlo Tree Search engines kept by every thread
+    private static final ThreadEngine<MonteCarloParameters, MonteCarloTreeSearch> MONTE_CARLO_TREE_SEARCH =
+            new ThreadEngine<>(parameters -> new MonteCarloTreeSearch(parameters.exploration, parameters.playout,
+                    parameters.threads));
+
+    /**
+     * Search of the best move of the engine which can be stopped by the deadline.
+     */
+    private interface Search
+    {
+        /**
+         * Search the best move without playing it.
+         * @param _player       the player that the AI will identify as
+         * @param _board        the Stratego board to search
+         * @param _maxPly       the maximum depth
+         * @param _deadline     System.nanoTime() when the search has to stop or NO_DEADLINE
+         * @return              the result of the search, the best move is NO_MOVE if it was stopped by the deadline
+         */
+        SearchResult search(Board.State _player, Board _board, double _maxPly, long _deadline);
+    }
+
+    /**
+     * Engine kept by every thread between the calls of the methods. The engine is made again
+     * when the thread asks for it with other parameters.
+     * @param <P>   parameters of the engine
+     * @param <E>   the engine
+     */
+    private static final class ThreadEngine<P, E>
+    {
+        private final Function<P, E> factory;   //makes the engine with the parameters
+        private final ThreadLocal<P> parameters = new ThreadLocal<>();
+        private final ThreadLocal<E> engines = new ThreadLocal<>();
+
+        /**
+         * Construct the engines of the threads.
+         * @param _factory      makes the engine with the parameters
+         */
+        ThreadEngine(Function<P, E> _factory)
+        {
+            this.factory = _factory;
+        }
+
+        /**
+         * Get the engine of the calling thread with the specified parameters.
+         * @param _parameters   parameters of the engine
+         * @return              the engine of the previous call of the thread or a new engine
+         */
+        E get(P _parameters)
+        {
+            E engine = engines.get();
+            if(engine == null || !Objects.equals(parameters.get(), _parameters))
+            {
+                //the old engine is released before the new one is made
+                release();
+                engine = factory.apply(_parameters);
+                engines.set(engine);
+                parameters.set(_parameters);
+            }
+
+            return engine;
+        }
+
+        /**
+         * Releases the engine of the calling thread.
+         */
+        void release()
+        {
+            engines.remove();
+            parameters.remove();
+        }
+    }
+
+    /**
+     * Parameters of the Monte Carlo Tree Search engine kept by the thread.
+     */
+    private static final class MonteCarloParameters
+    {
+        private final double exploration;                   //exploration constant of the UCT formula
+        private final MonteCarloTreeSearch.Playout playout; //policy of the moves of the playouts
+        private final int threads;                          //number of threads
+
+        /**
+         * Construct the parameters.
+         * @param _exploration      exploration constant of the UCT formula
+         * @param _playout          policy of the moves of the playouts
+         * @param _threads          number of threads
+         */
+        MonteCarloParameters(double _exploration, MonteCarloTreeSearch.Playout _playout, int _threads)
+        {
+            this.exploration = _exploration;
+            this.playout = _playout;
+            this.threads = _threads;
+        }
+
+        @Override
+        public boolean equals(Object _other)
+        {
+            if(this == _other) return true;
+            if(!(_other instanceof MonteCarloParameters)) return false;
+
+            MonteCarloParameters other = (MonteCarloParameters)_other;
+            return Double.compare(exploration, other.exploration) == 0 && playout == other.playout
+                    && threads == other.threads;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(exploration, playout, threads);
+        }
+    }
+
     /**
      * Algorithms cannot be instantiated.
      */
     private Algorithms() {}
 
     /**
-     * Play using a random moving;
+     * Search a move using a random moving;
      *
      * @param _board the Stratego board to play on
+     * @return       the result of the search, the move is not played
      */
-    public static void random(Board _board)
+    public static SearchResult random(Board _board)
     {
-        Random.run(_board);
+        return Random.run(_board);
     }
 
     /**
-     * Play using the MiniMax Algorithm.
+     * Search a move using the MiniMax Algorithm.
      *
      * @param _board the Stratego board to play on
+     * @return       the result of the search, the move is not played
      */
-    public static void miniMax(Board _board)
+    public static SearchResult miniMax(Board _board)
     {
-        MiniMax.run(_board.getTurn(), _board, Double.POSITIVE_INFINITY);
+        return new MiniMax().search(_board.getTurn(), _board, Double.POSITIVE_INFINITY);
     }
 
     /**
-     * Play using the MiniMax Algorithm.
+     * Search a move using the MiniMax Algorithm.
      *
      * @param _board the Stratego board to play on
      * @param _ply   the maximum depth
+     * @return       the result of the search, the move is not played
      */
-    public static void miniMax(Board _board, int _ply)
+    public static SearchResult miniMax(Board _board, int _ply)
     {
-        MiniMax.run(_board.getTurn(), _board, _ply);
+        return new MiniMax().search(_board.getTurn(), _board, _ply);
     }
 
     /**
-     * Play using the AlphaBeta Pruning algorithm.
+     * Search a move using the AlphaBeta Pruning algorithm.
      *
      * @param _board the Stratego board to play on
+     * @return       the result of the search, the move is not played
      */
-    public static void alphaBetaPruning(Board _board)
+    public static SearchResult alphaBetaPruning(Board _board)
     {
-        AlphaBetaPruning.run(_board.getTurn(), _board, Double.POSITIVE_INFINITY);
+        return new AlphaBetaPruning(TABLE_SIZE_MB).search(_board.getTurn(), _board, Double.POSITIVE_INFINITY);
     }
 
     /**
-     * Play using the AlphaBeta Pruning algorithm.
+     * Search a move using the AlphaBeta Pruning algorithm.
      * Includes depth limit.
      *
      * @param _board the Stratego board to play on
      * @param _ply   the maximum depth
+     * @return       the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruning(Board _board, int _ply)
+    {
+        return new AlphaBetaPruning(TABLE_SIZE_MB).search(_board.getTurn(), _board, _ply);
+    }
+
+    /**
+     * Search a move using the AlphaBeta Pruning algorithm.
+     * Includes depth limit and the size of the transposition table.
+     *
+     * @param _board        the Stratego board to play on
+     * @param _ply          the maximum depth
+     * @param _tableSizeMB  size of the transposition table in megabytes
+     * @return              the result of the search, the move is not played
      */
-    public static void alphaBetaPruning(Board _board, int _ply)
+    public static SearchResult alphaBetaPruning(Board _board, int _ply, int _tableSizeMB)
     {
-        AlphaBetaPruning.run(_board.getTurn(), _board, _ply);
+        return new AlphaBetaPruning(_tableSizeMB).search(_board.getTurn(), _board, _ply);
     }
 
     /**
-     * Play using the AlphaBeta Pruning algorithm.
+     * Search a move using the AlphaBeta Pruning algorithm.
      * Includes depth limit and evaluation function based on started lines.
      *
      * @param _board the Stratego board to play on
      * @param _ply   the maximum depth
+     * @return       the result of the search, the move is not played
      */
-    public static void alphaBetaPruningStartedLines(Board _board, int _ply)
+    public static SearchResult alphaBetaPruningStartedLines(Board _board, int _ply)
     {
-        AlphaBetaPruningStartedLines.run(_board.getTurn(), _board, _ply);
+        return new AlphaBetaPruningStartedLines(TABLE_SIZE_MB).search(_board.getTurn(), _board, _ply);
     }
 
     /**
-     * Play using the AlphaBeta Pruning algorithm.
+     * Search a move using the AlphaBeta Pruning algorithm.
+     * Includes depth limit, evaluation function based on started lines and the size of the transposition table.
+     *
+     * @param _board        the Stratego board to play on
+     * @param _ply          the maximum depth
+     * @param _tableSizeMB  size of the transposition table in megabytes
+     * @return              the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningStartedLines(Board _board, int _ply, int _tableSizeMB)
+    {
+        return new AlphaBetaPruningStartedLines(_tableSizeMB).search(_board.getTurn(), _board, _ply);
+    }
+
+    /**
+     * Search a move using the AlphaBeta Pruning algorithm.
      * Includes depth limit and sorting moves based on evaluation function.
      *
      * @param _board the Stratego board to play on
      * @param _ply   the maximum depth
+     * @return       the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningSortingMoves(Board _board, int _ply)
+    {
+        return new AlphaBetaPruningSortingMoves(TABLE_SIZE_MB).search(_board.getTurn(), _board, _ply);
+    }
+
+    /**
+     * Search a move using the AlphaBeta Pruning algorithm.
+     * Includes depth limit, sorting moves based on evaluation function and the size of the transposition table.
+     *
+     * @param _board        the Stratego board to play on
+     * @param _ply          the maximum depth
+     * @param _tableSizeMB  size of the transposition table in megabytes
+     * @return              the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningSortingMoves(Board _board, int _ply, int _tableSizeMB)
+    {
+        return new AlphaBetaPruningSortingMoves(_tableSizeMB).search(_board.getTurn(), _board, _ply);
+    }
+
+    /**
+     * Search a move using the Principal Variation Search (NegaScout).
+     * Includes depth limit.
+     *
+     * @param _board the Stratego board to play on
+     * @param _ply   the maximum depth
+     * @return       the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningPVS(Board _board, int _ply)
+    {
+        return new AlphaBetaPruningPVS(new AlphaBetaPruning(TABLE_SIZE_MB)).search(_board.getTurn(), _board, _ply);
+    }
+
+    /**
+     * Search a move using the AlphaBeta Pruning algorithm.
+     * Includes depth limit, sorting moves based on evaluation function and late move reductions.
+     *
+     * @param _board        the Stratego board to play on
+     * @param _ply          the maximum depth
+     * @param _reductions   reductions of the late moves
+     * @return              the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningSortingMovesLMR(Board _board, int _ply, LateMoveReductions _reductions)
+    {
+        return new AlphaBetaPruningSortingMoves(TABLE_SIZE_MB, _reductions).search(_board.getTurn(), _board, _ply);
+    }
+
+    /**
+     * Search a move using the AlphaBeta Pruning algorithm.
+     * Includes depth limit, sorting moves based on evaluation function and ProbCut (boards are cut off
+     * by the shallow search, see ProbCut.load(String) for the calibrated parameters).
+     *
+     * @param _board    the Stratego board to play on
+     * @param _ply      the maximum depth
+     * @param _probCut  regressions of the deep scores from the shallow scores
+     * @return          the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningSortingMovesProbCut(Board _board, int _ply, ProbCut _probCut)
+    {
+        return new AlphaBetaPruningSortingMoves(TABLE_SIZE_MB, LateMoveReductions.NONE, _probCut)
+                .search(_board.getTurn(), _board, _ply);
+    }
+
+    /**
+     * Search a move using the Principal Variation Search (NegaScout).
+     * Includes depth limit, evaluation function based on started lines and sorting moves.
+     *
+     * @param _board the Stratego board to play on
+     * @param _ply   the maximum depth
+     * @return       the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningSortingMovesPVS(Board _board, int _ply)
+    {
+        return new AlphaBetaPruningPVS(new AlphaBetaPruningSortingMoves(TABLE_SIZE_MB))
+                .search(_board.getTurn(), _board, _ply);
+    }
+
+    /**
+     * Search a move using the AlphaBeta Pruning algorithm on many threads.
+     * Includes depth limit. The moves are split between the threads.
+     *
+     * @param _board    the Stratego board to play on
+     * @param _ply      the maximum depth
+     * @param _threads  number of threads
+     * @return          the result of the search, the move is not played
      */
-    public static void alphaBetaPruningSortingMoves(Board _board, int _ply)
+    public static SearchResult alphaBetaPruningParallel(Board _board, int _ply, int _threads)
     {
-        AlphaBetaPruningSortingMoves.run(_board.getTurn(), _board, _ply);
+        try(AlphaBetaPruningParallel engine = new AlphaBetaPruningParallel(
+                new AlphaBetaPruning(TABLE_SIZE_MB), _threads))
+        {
+            return engine.search(_board.getTurn(), _board, _ply);
+        }
     }
 
     /**
-     * Play using the AlphaBeta Pruning algorithm.
-     * Includes depth limit and make a move based on the best first search.
-     * @param _board
-     * @param _ply
+     * Search a move using the AlphaBeta Pruning algorithm on many threads.
+     * Includes depth limit, evaluation function based on started lines and sorting moves.
+     * The moves are split between the threads.
+     *
+     * @param _board    the Stratego board to play on
+     * @param _ply      the maximum depth
+     * @param _threads  number of threads
+     * @return          the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningStartedLinesParallel(Board _board, int _ply, int _threads)
+    {
+        try(AlphaBetaPruningParallel engine = new AlphaBetaPruningParallel(
+                new AlphaBetaPruningSortingMoves(TABLE_SIZE_MB), _threads))
+        {
+            return engine.search(_board.getTurn(), _board, _ply);
+        }
+    }
+
+    /**
+     * Search a move using the AlphaBeta Pruning algorithm on many threads (Lazy SMP).
+     * Includes depth limit. All threads search the same board and share the transposition table.
+     *
+     * @param _board    the Stratego board to play on
+     * @param _ply      the maximum depth
+     * @param _threads  number of threads
+     * @return          the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningLazySMP(Board _board, int _ply, int _threads)
+    {
+        return new AlphaBetaPruningLazySMP(new AlphaBetaPruning(TABLE_SIZE_MB), _threads)
+                .search(_board.getTurn(), _board, _ply);
+    }
+
+    /**
+     * Search a move using the AlphaBeta Pruning algorithm on many threads (Lazy SMP).
+     * Includes depth limit, evaluation function based on started lines and sorting moves.
+     * All threads search the same board and share the transposition table.
+     *
+     * @param _board    the Stratego board to play on
+     * @param _ply      the maximum depth
+     * @param _threads  number of threads
+     * @return          the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningStartedLinesLazySMP(Board _board, int _ply, int _threads)
+    {
+        return new AlphaBetaPruningLazySMP(new AlphaBetaPruningSortingMoves(TABLE_SIZE_MB), _threads)
+                .search(_board.getTurn(), _board, _ply);
+    }
+
+    /**
+     * Search a move using the AlphaBeta Pruning algorithm with iterative deepening.
+     * Searches deeper and deeper until the time limit and returns the best move of the last finished depth.
+     * Boards with at most ENDGAME_EMPTY_FIELDS empty fields are solved exactly by the endgame solver,
+     * if it finishes in the time limit.
+     *
+     * @param _board            the Stratego board to play on
+     * @param _timeLimitMillis  the time limit of the move in milliseconds
+     * @return                  the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningTimed(Board _board, long _timeLimitMillis)
+    {
+        return iterativeDeepening(_board, _timeLimitMillis,
+                new AlphaBetaPruning(TABLE_SIZE_MB)::search);
+    }
+
+    /**
+     * Search a move using the AlphaBeta Pruning algorithm with iterative deepening
+     * and evaluation function based on started lines.
+     * Searches deeper and deeper until the time limit and returns the best move of the last finished depth.
+     * Boards with at most ENDGAME_EMPTY_FIELDS empty fields are solved exactly by the endgame solver,
+     * if it finishes in the time limit.
+     *
+     * @param _board            the Stratego board to play on
+     * @param _timeLimitMillis  the time limit of the move in milliseconds
+     * @return                  the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningStartedLinesTimed(Board _board, long _timeLimitMillis)
+    {
+        return iterativeDeepening(_board, _timeLimitMillis,
+                new AlphaBetaPruningStartedLines(TABLE_SIZE_MB)::search);
+    }
+
+    /**
+     * Search a move using the AlphaBeta Pruning algorithm with iterative deepening
+     * and sorting moves based on evaluation function.
+     * Searches deeper and deeper until the time limit and returns the best move of the last finished depth.
+     * Boards with at most ENDGAME_EMPTY_FIELDS empty fields are solved exactly by the endgame solver,
+     * if it finishes in the time limit.
+     *
+     * @param _board            the Stratego board to play on
+     * @param _timeLimitMillis  the time limit of the move in milliseconds
+     * @return                  the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningSortingMovesTimed(Board _board, long _timeLimitMillis)
+    {
+        return iterativeDeepening(_board, _timeLimitMillis,
+                new AlphaBetaPruningSortingMoves(TABLE_SIZE_MB)::search);
+    }
+
+    /**
+     * Searches the board with the depth 1, 2, 3... until the time limit
+     * and returns the best move of the last finished depth.
+     * The engines keep the best moves of the previous depth in the transposition table
+     * and search them first, so every depth starts from the principal variation of the previous one.
+     *
+     * @param _board            the Stratego board to play on
+     * @param _timeLimitMillis  the time limit of the move in milliseconds
+     * @param _search           the search of the engine
+     * @return                  the result of the last finished depth with the nodes of all depths
+     */
+    private static SearchResult iterativeDeepening(Board _board, long _timeLimitMillis, Search _search)
+    {
+        if(_timeLimitMillis < 1) throw new IllegalArgumentException("Time limit must be greater than 0.");
+
+        long deadline = System.nanoTime() + _timeLimitMillis * 1000000;
+
+        //the endgame is solved to the end if the solver finishes in time
+        if(isEndgame(_board))
+        {
+            SearchResult solved = new EndgameSolver(TABLE_SIZE_MB).search(_board.getTurn(), _board, deadline);
+            if(solved.getBestMove() != TranspositionTable.NO_MOVE) return solved;
+        }
+
+        int emptyFields = _board.getAvailableMovesCount();
+        SearchResult result = null;
+        long nodes = 0;
+
+        //the depth of all empty fields searches the game to the end
+        for(int ply = 1; ply <= emptyFields && System.nanoTime() - deadline < 0; ply++)
+        {
+            SearchResult depthResult = _search.search(_board.getTurn(), _board, ply, deadline);
+            nodes += depthResult.getNodes();
+            if(depthResult.getBestMove() == TranspositionTable.NO_MOVE) break;
+            result = depthResult;
+
+            //deeper search can't change the decided result of the game
+            if(_board.isOutcomeDecided()) break;
+        }
+
+        //a move has to be found even if the first depth is not finished in time
+        if(result == null)
+        {
+            result = _search.search(_board.getTurn(), _board, 1, NO_DEADLINE);
+            nodes += result.getNodes();
+        }
+
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getPrincipalVariation(), nodes,
+                result.getDepth());
+    }
+
+    /**
+     * Search a move using the AlphaBeta Pruning algorithm.
+     * Includes depth limit and make a move based on the best first search (MTD(f)).
+     *
+     * @param _board the Stratego board to play on
+     * @param _ply   the maximum depth
+     * @return       the result of the search, the move is not played
+     */
+    public static SearchResult alphaBetaPruningBestFirst(Board _board, int _ply)
+    {
+        return new AlphaBetaPruningBestFirst(TABLE_SIZE_MB).search(_board.getTurn(), _board, _ply);
+    }
+
+    /**
+     * Search a move using the Monte Carlo Tree Search (UCT) with random playouts.
+     * Searches until the time limit and returns the move with the most playouts.
+     *
+     * @param _board            the Stratego board to play on
+     * @param _timeLimitMillis  the time limit of the move in milliseconds
+     * @return                  the result of the search (nodes are the playouts), the move is not played
+     */
+    public static SearchResult monteCarloTreeSearch(Board _board, long _timeLimitMillis)
+    {
+        return monteCarloEngine(MonteCarloTreeSearch.DEFAULT_EXPLORATION, MonteCarloTreeSearch.Playout.RANDOM, 1)
+                .search(_board.getTurn(), _board, _timeLimitMillis);
+    }
+
+    /**
+     * Search a move using the Monte Carlo Tree Search (UCT).
+     * Includes the exploration constant and the policy of the playouts.
+     * Searches until the time limit and returns the move with the most playouts.
+     *
+     * @param _board            the Stratego board to play on
+     * @param _timeLimitMillis  the time limit of the move in milliseconds
+     * @param _exploration      exploration constant of the UCT formula
+     * @param _playout          policy of the moves of the playouts
+     * @return                  the result of the search (nodes are the playouts), the move is not played
+     */
+    public static SearchResult monteCarloTreeSearch(Board _board, long _timeLimitMillis, double _exploration,
+                                                    MonteCarloTreeSearch.Playout _playout)
+    {
+        return monteCarloEngine(_exploration, _playout, 1).search(_board.getTurn(), _board, _timeLimitMillis);
+    }
+
+    /**
+     * Search a move using the Monte Carlo Tree Search (UCT) on many threads.
+     * All threads go down the same tree. Searches until the time limit and returns the move with the most playouts.
+     *
+     * @param _board            the Stratego board to play on
+     * @param _timeLimitMillis  the time limit of the move in milliseconds
+     * @param _threads          number of threads
+     * @return                  the result of the search (nodes are the playouts), the move is not played
+     */
+    public static SearchResult monteCarloTreeSearchParallel(Board _board, long _timeLimitMillis, int _threads)
+    {
+        return monteCarloEngine(MonteCarloTreeSearch.DEFAULT_EXPLORATION, MonteCarloTreeSearch.Playout.RANDOM,
+                _threads).search(_board.getTurn(), _board, _timeLimitMillis);
+    }
+
+    /**
+     * Get the Monte Carlo Tree Search engine of the calling thread. It keeps its tree between the calls,
+     * so the search of the next move of the same game starts from the subtree of the moves played since.
+     *
+     * @param _exploration      exploration constant of the UCT formula
+     * @param _playout          policy of the moves of the playouts
+     * @param _threads          number of threads
+     * @return                  the engine of the thread
+     */
+    private static MonteCarloTreeSearch monteCarloEngine(double _exploration, MonteCarloTreeSearch.Playout _playout,
+                                                         int _threads)
+    {
+        return MONTE_CARLO_TREE_SEARCH.get(new MonteCarloParameters(_exploration, _playout, _threads));
+    }
+
+    /**
+     * Releases the Monte Carlo Tree Search engines kept by the calling thread with their trees.
+     * The threads of a pool call it after the game, so the trees of the finished games are not kept.
+     */
+    public static void releaseEngines()
+    {
+        MONTE_CARLO_TREE_SEARCH.release();
+    }
+
+    /**
+     * Search a move using the exact endgame solver.
+     * Searches the board to the end of the game and finds the score of the perfect play of both players.
+     *
+     * @param _board the Stratego board to play on
+     * @return       the result of the search with the exact score, the move is not played
+     */
+    public static SearchResult solveEndgame(Board _board)
+    {
+        return new EndgameSolver(TABLE_SIZE_MB).search(_board.getTurn(), _board);
+    }
+
+    /**
+     * Checks if the board is solved by the endgame solver before the iterative deepening.
+     *
+     * @param _board the Stratego board to play on
+     * @return       true if the game is not over and the board has at most ENDGAME_EMPTY_FIELDS empty fields
      */
-    public static void alphaBetaPruningBestFirst(Board _board, int _ply)
+    private static boolean isEndgame(Board _board)
     {
-        AlphaBetaPruningBestFirst.run(_board.getTurn(), _board, _ply);
+        return !_board.isGameOver() && _board.getAvailableMovesCount() <= ENDGAME_EMPTY_FIELDS;
     }
 }
@@ -2,29 +2,209 @@ package AI;
 
 import Stratego.Board;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Uses the AlphaBeta Pruning algorithm to play a move in Stratego game.
+ * Every engine keeps its own transposition table and state of the search, so many games can be played
+ * at the same time with their own engines. One engine searches one board at a time.
+ * Late moves can be searched to the reduced depth first (see LateMoveReductions) and boards can be cut off
+ * by the shallow search (see ProbCut), by default no move is reduced and no board is cut off.
+ * Engines on many threads (see AlphaBetaPruningLazySMP and AlphaBetaPruningParallel) share the table
+ * of the engine they are made from (see newEngine()), everything else is kept by every engine.
  */
 public class AlphaBetaPruning
 {
-    private static double maxPly;
+    //Score of the board which is not cut off by ProbCut
+    private static final int NO_CUT = Integer.MIN_VALUE;
+    //Score higher than the score of any board
+    static final int INFINITY = Short.MAX_VALUE;
+
+    private final TranspositionTable table;     //results of the searched positions, kept between the moves
+    private final LateMoveReductions reductions;    //reductions of the late moves
+    private final ProbCut probCut;              //regressions of the deep scores from the shallow scores
+    private double maxPly;
+    private int reduction;                      //sum of the reductions of the moves from the root to the board
+    private long deadline;                      //System.nanoTime() when the search has to stop
+    private AtomicBoolean stop = new AtomicBoolean();   //flag to stop the search from another thread
+    private int movesRotation;                  //rotation of the moves of the board the search was started on
+    private boolean timeOut;                    //if the search was stopped by the deadline or by the flag
+    private long nodes;                         //number of searched nodes, the time is checked every few nodes
+    private long reducedSearches;               //number of the moves searched to the reduced depth
+    private long researches;                    //number of the reduced moves searched again to the full depth
+    private long probCuts;                      //number of the boards cut off by the shallow search
+    private int rootBestMove;                   //the best move on the board the search was started on
+    private final int[][] moves = new int[Board.BOARD_SIZE + 1][Board.BOARD_SIZE];  //moves of every depth
+
+    /**
+     * Construct an engine with the transposition table of the default size.
+     */
+    public AlphaBetaPruning()
+    {
+        this(TranspositionTable.DEFAULT_SIZE_MB);
+    }
+
     /**
-     * AlphaBetaPruning cannot be instantiated.
+     * Construct an engine.
+     * @param _tableSizeMB  size of the transposition table in megabytes
      */
-    private AlphaBetaPruning() { }
+    public AlphaBetaPruning(int _tableSizeMB)
+    {
+        this(_tableSizeMB, LateMoveReductions.NONE);
+    }
 
     /**
-     * Execute the algorithm.
+     * Construct an engine with the late move reductions.
+     * @param _tableSizeMB  size of the transposition table in megabytes
+     * @param _reductions   reductions of the late moves
+     */
+    public AlphaBetaPruning(int _tableSizeMB, LateMoveReductions _reductions)
+    {
+        this(_tableSizeMB, _reductions, ProbCut.NONE);
+    }
+
+    /**
+     * Construct an engine with the late move reductions and ProbCut.
+     * @param _tableSizeMB  size of the transposition table in megabytes
+     * @param _reductions   reductions of the late moves
+     * @param _probCut      regressions of the deep scores from the shallow scores
+     */
+    public AlphaBetaPruning(int _tableSizeMB, LateMoveReductions _reductions, ProbCut _probCut)
+    {
+        this(new TranspositionTable(_tableSizeMB), _reductions, _probCut);
+    }
+
+    /**
+     * Construct an engine with the specified transposition table.
+     * @param _table        transposition table, it can be shared with other engines
+     * @param _reductions   reductions of the late moves
+     * @param _probCut      regressions of the deep scores from the shallow scores
+     */
+    AlphaBetaPruning(TranspositionTable _table, LateMoveReductions _reductions, ProbCut _probCut)
+    {
+        this.table = _table;
+        this.reductions = _reductions;
+        this.probCut = _probCut;
+    }
+
+    /**
+     * Get a new engine of the same kind which shares the transposition table, the reductions
+     * and ProbCut of this engine, so it can search on another thread.
+     * @return              the new engine
+     */
+    AlphaBetaPruning newEngine()
+    {
+        return new AlphaBetaPruning(table, reductions, probCut);
+    }
+
+    /**
+     * Search the best move without playing it.
      * @param _player       the player that the AI will identify as
-     * @param _board        the Stratego board to play on
+     * @param _board        the Stratego board to search
+     * @param _maxPly       the maximum depth
+     * @return              the result of the search
+     */
+    public SearchResult search(Board.State _player, Board _board, double _maxPly)
+    {
+        return search(_player, _board, _maxPly, Algorithms.NO_DEADLINE);
+    }
+
+    /**
+     * Search the best move without playing it.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to search
+     * @param _maxPly       the maximum depth
+     * @param _deadline     System.nanoTime() when the search has to stop or Algorithms.NO_DEADLINE
+     * @return              the result of the search, the best move is NO_MOVE if it was stopped by the deadline
+     */
+    SearchResult search(Board.State _player, Board _board, double _maxPly, long _deadline)
+    {
+        table.newSearch();
+        return continueSearch(_player, _board, _maxPly, _deadline);
+    }
+
+    /**
+     * Search the best move without starting a new search of the transposition table,
+     * so the results of the other engines searching the same board stay as new as the results of this one.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to search
      * @param _maxPly       the maximum depth
+     * @param _deadline     System.nanoTime() when the search has to stop or Algorithms.NO_DEADLINE
+     * @return              the result of the search, the best move is NO_MOVE if it was stopped
      */
-    static void run(Board.State _player, Board _board, double _maxPly)
+    SearchResult continueSearch(Board.State _player, Board _board, double _maxPly, long _deadline)
     {
         if(_maxPly < 1) throw new IllegalArgumentException("Maximum depth must be greater than 0.");
 
-        AlphaBetaPruning.maxPly = _maxPly;
-        alphaBetaPruning(_player, _board, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0);
+        //every move leads to the same points, there is nothing to search
+        if(!_board.isGameOver() && _board.isOutcomeDecided()) return SearchResult.decided(_player, _board);
+
+        start(_maxPly, _deadline);
+
+        int score = alphaBetaPruning(_player, _board, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0);
+        if(timeOut) return new SearchResult(TranspositionTable.NO_MOVE, 0, new int[0], nodes, 0);
+
+        //the depth of all empty fields searches the game to the end
+        int depth = (int)Math.min(_maxPly, _board.getAvailableMovesCount());
+        int[] principalVariation = table.principalVariation(_player, _board, rootBestMove, depth);
+        return new SearchResult(rootBestMove, score, principalVariation, nodes, depth);
+    }
+
+    /**
+     * Searches one move of the board the search is started on, the window above the specified alpha.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to search, the move is undone after the search
+     * @param _move         the move to search
+     * @param _maxPly       the maximum depth (the board the search is started on is the depth 0)
+     * @param _alpha        the alpha value
+     * @return              the score of the move
+     */
+    int searchMove(Board.State _player, Board _board, int _move, double _maxPly, double _alpha)
+    {
+        start(_maxPly, Algorithms.NO_DEADLINE);
+
+        _board.makeMove(_move);
+        int score = alphaBetaPruning(_player, _board, _alpha, Double.POSITIVE_INFINITY, 1);
+        _board.undoMove();
+        return score;
+    }
+
+    /**
+     * Resets the state of the engine before a search.
+     * @param _maxPly       the maximum depth
+     * @param _deadline     System.nanoTime() when the search has to stop or Algorithms.NO_DEADLINE
+     */
+    private void start(double _maxPly, long _deadline)
+    {
+        this.maxPly = _maxPly;
+        this.deadline = _deadline;
+        this.timeOut = false;
+        this.nodes = 0;
+        this.reduction = 0;
+        this.reducedSearches = 0;
+        this.researches = 0;
+        this.probCuts = 0;
+        this.rootBestMove = TranspositionTable.NO_MOVE;
+        startSearch();
+    }
+
+    /**
+     * Sets the flag which stops the search when it is set by another thread.
+     * @param _stop         flag to stop the search
+     */
+    void setStop(AtomicBoolean _stop)
+    {
+        this.stop = _stop;
+    }
+
+    /**
+     * Sets the rotation of the moves of the board the search is started on, so engines on many threads
+     * searching the same board start in other places. The best move from the table is still searched first.
+     * @param _movesRotation    the move on the index i after the best move goes to the index i + rotation
+     */
+    void setMovesRotation(int _movesRotation)
+    {
+        this.movesRotation = _movesRotation;
     }
 
     /**
@@ -37,35 +217,103 @@ public class AlphaBetaPruning
      * @param _currentPly the current depth
      * @return            the score of the board
      */
-    private static int alphaBetaPruning(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly) {
+    private int alphaBetaPruning(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly) {
+        //stop the search if the time is over
+        if(isTimeOut()) return 0;
+
         //If the game on the board is over return score
-        if (_currentPly++ == maxPly || _board.isGameOver())
+        if (_currentPly + reduction >= maxPly || _board.isGameOver())
             return score(_player, _board);
 
+        //the score can't get out of the bounds of the points which can still be earned,
+        //but always search the board the search was started on to play a move
+        if(_currentPly > 0)
+        {
+            int maxScore = _board.getMaxScore(_player);
+            if(maxScore <= _alpha) return maxScore;
+
+            int minScore = _board.getMinScore(_player);
+            if(minScore >= _beta || minScore == maxScore) return minScore;
+        }
+
+        //use the result of the same position if it was searched deep enough,
+        //but always search the board the search was started on to play a move
+        long entry = table.probe(TranspositionTable.key(_player, _board));
+        int bestMove = TranspositionTable.NO_MOVE;
+        if(entry != TranspositionTable.MISS)
+        {
+            bestMove = TranspositionTable.getMove(entry);
+
+            if(_currentPly > 0 && TranspositionTable.getDepth(entry) >= depth(_currentPly))
+            {
+                int score = TranspositionTable.getScore(entry);
+                int bound = TranspositionTable.getBound(entry);
+
+                if(bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= _beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= _alpha))
+                    return score;
+            }
+        }
+
+        //the shallow search can tell the board is out of the window without the deep search,
+        //but always search the board the search was started on to play a move
+        if(_currentPly > 0 && probCut.getShallowDepth(depth(_currentPly)) > 0)
+        {
+            int score = probCut(_player, _board, _alpha, _beta, _currentPly);
+            if(timeOut) return 0;
+            if(score != NO_CUT) return score;
+        }
+
+        _currentPly++;
+
         //get highest or lowest score move depends on which player are identify as AI
-        if (_board.getTurn() == _player) return getMax(_player, _board, _alpha, _beta, _currentPly);
-        else return getMin(_player, _board, _alpha, _beta, _currentPly);
+        if (_board.getTurn() == _player) return getMax(_player, _board, _alpha, _beta, _currentPly, bestMove);
+        else return getMin(_player, _board, _alpha, _beta, _currentPly, bestMove);
     }
 
     /**
-     * Play the move with the highest score.
+     * Search the move with the highest score.
      * @param _player     the player that the AI will identify as
      * @param _board      the Stratego board to play on
      * @param _alpha      the alpha value
      * @param _beta       the beta value
      * @param _currentPly the current depth
+     * @param _firstMove  the move to search first (the best move from the table)
      * @return            the score of the board
      */
-    private static int getMax(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly)
+    private int getMax(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly,
+                       int _firstMove)
     {
         int indexOfBestMove = -1;
 
         //select best from available moves
-        for(Integer move : _board.getAvailableMoves())
+        int[] moves = this.moves[_currentPly];
+        int movesCount = orderMoves(_player, _board, _currentPly - 1, _firstMove, moves);
+        if(_currentPly == 1) rotateMoves(moves, movesCount, _firstMove);
+        for(int i = 0; i < movesCount; i++)
         {
-            Board modifiedBoard = _board.getDeepCopy();
-            modifiedBoard.move(move);
-            int score = alphaBetaPruning(_player, modifiedBoard, _alpha, _beta, _currentPly);
+            int move = moves[i];
+            _board.makeMove(move);
+
+            //the late move only has to be proven not better than alpha at the reduced depth
+            int score;
+            int moveReduction = reductions.getReduction(depth(_currentPly - 1), i);
+            if(moveReduction > 0)
+            {
+                reducedSearches++;
+                score = reducedSearch(_player, _board, _alpha, _alpha + 1, _currentPly, moveReduction);
+                if(score > _alpha && !timeOut)
+                {
+                    researches++;
+                    score = alphaBetaPruning(_player, _board, _alpha, _beta, _currentPly);
+                }
+            }
+            else score = alphaBetaPruning(_player, _board, _alpha, _beta, _currentPly);
+            _board.undoMove();
+
+            //score of a stopped search is useless
+            if(timeOut) return 0;
 
             if(score > _alpha)
             {
@@ -74,32 +322,65 @@ public class AlphaBetaPruning
             }
 
             //prun
-            if(_alpha >= _beta) break;
+            if(_alpha >= _beta)
+            {
+                saveCutoff(move, _currentPly - 1, depth(_currentPly - 1));
+                break;
+            }
         }
 
-        if(indexOfBestMove != -1) _board.move(indexOfBestMove);
+        //no move is better than alpha - upper bound, cut off - lower bound
+        int bound = indexOfBestMove == -1 ? TranspositionTable.UPPER_BOUND
+                : _alpha >= _beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        table.store(TranspositionTable.key(_player, _board), (int)_alpha, depth(_currentPly - 1), bound, indexOfBestMove);
+
+        //remember the best move of the board the search was started on
+        if(_currentPly == 1) rootBestMove = indexOfBestMove;
         return (int)_alpha;
     }
 
     /**
-     * Play the move with the lowest score.
+     * Search the move with the lowest score.
      * @param _player     the player that the AI will identify as
      * @param _board      the Stratego board to play on
      * @param _alpha      the alpha value
      * @param _beta       the beta value
      * @param _currentPly the current depth
+     * @param _firstMove  the move to search first (the best move from the table)
      * @return            the score of the board
      */
-    private static int getMin(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly)
+    private int getMin(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly,
+                       int _firstMove)
     {
         int indexOfBestMove = -1;
 
         //select best from available moves
-        for(Integer move : _board.getAvailableMoves())
+        int[] moves = this.moves[_currentPly];
+        int movesCount = orderMoves(_player, _board, _currentPly - 1, _firstMove, moves);
+        if(_currentPly == 1) rotateMoves(moves, movesCount, _firstMove);
+        for(int i = 0; i < movesCount; i++)
         {
-            Board modifiedBoard = _board.getDeepCopy();
-            modifiedBoard.move(move);
-            int score = alphaBetaPruning(_player, modifiedBoard, _alpha, _beta, _currentPly);
+            int move = moves[i];
+            _board.makeMove(move);
+
+            //the late move only has to be proven not worse than beta at the reduced depth
+            int score;
+            int moveReduction = reductions.getReduction(depth(_currentPly - 1), i);
+            if(moveReduction > 0)
+            {
+                reducedSearches++;
+                score = reducedSearch(_player, _board, _beta - 1, _beta, _currentPly, moveReduction);
+                if(score < _beta && !timeOut)
+                {
+                    researches++;
+                    score = alphaBetaPruning(_player, _board, _alpha, _beta, _currentPly);
+                }
+            }
+            else score = alphaBetaPruning(_player, _board, _alpha, _beta, _currentPly);
+            _board.undoMove();
+
+            //score of a stopped search is useless
+            if(timeOut) return 0;
 
             if(score < _beta)
             {
@@ -108,13 +389,243 @@ public class AlphaBetaPruning
             }
 
             //prun
-            if(_alpha >= _beta) break;
+            if(_alpha >= _beta)
+            {
+                saveCutoff(move, _currentPly - 1, depth(_currentPly - 1));
+                break;
+            }
         }
 
-        if(indexOfBestMove != -1) _board.move(indexOfBestMove);
+        //no move is worse than beta - lower bound, cut off - upper bound
+        int bound = indexOfBestMove == -1 ? TranspositionTable.LOWER_BOUND
+                : _alpha >= _beta ? TranspositionTable.UPPER_BOUND : TranspositionTable.EXACT;
+        table.store(TranspositionTable.key(_player, _board), (int)_beta, depth(_currentPly - 1), bound, indexOfBestMove);
+
+        //remember the best move of the board the search was started on
+        if(_currentPly == 1) rootBestMove = indexOfBestMove;
         return (int)_beta;
     }
 
+    /**
+     * Searches the board to the reduced depth with the zero window.
+     * @param _player     the player that the AI will identify as
+     * @param _board      the Stratego board to play on
+     * @param _alpha      the alpha value
+     * @param _beta       the beta value, alpha + 1
+     * @param _currentPly the current depth
+     * @param _reduction  number of the plies the board is searched less
+     * @return            the score of the board at the reduced depth
+     */
+    private int reducedSearch(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly,
+                              int _reduction)
+    {
+        reduction += _reduction;
+        int score = alphaBetaPruning(_player, _board, _alpha, _beta, _currentPly);
+        reduction -= _reduction;
+        return score;
+    }
+
+    /**
+     * Searches the board to the shallow depth with the zero windows around the scores which predict
+     * the deep score out of the window.
+     * @param _player     the player that the AI will identify as
+     * @param _board      the Stratego board to play on
+     * @param _alpha      the alpha value
+     * @param _beta       the beta value
+     * @param _currentPly the current depth
+     * @return            beta or alpha if the board is cut off, otherwise NO_CUT
+     */
+    private int probCut(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly)
+    {
+        int depth = depth(_currentPly);
+        int shallowReduction = depth - probCut.getShallowDepth(depth);
+
+        //regressions are in the perspective of the player to move, scores in the perspective of the player
+        boolean playerTurn = _board.getTurn() == _player;
+
+        if(_beta != Double.POSITIVE_INFINITY)
+        {
+            int cut = playerTurn ? probCut.getHighCut(depth, _beta) : -probCut.getLowCut(depth, -_beta);
+            if(reducedSearch(_player, _board, cut - 1, cut, _currentPly, shallowReduction) >= cut && !timeOut)
+            {
+                probCuts++;
+                return (int)_beta;
+            }
+        }
+
+        if(_alpha != Double.NEGATIVE_INFINITY && !timeOut)
+        {
+            int cut = playerTurn ? probCut.getLowCut(depth, _alpha) : -probCut.getHighCut(depth, -_alpha);
+            if(reducedSearch(_player, _board, cut, cut + 1, _currentPly, shallowReduction) <= cut && !timeOut)
+            {
+                probCuts++;
+                return (int)_alpha;
+            }
+        }
+
+        return NO_CUT;
+    }
+
+    /**
+     * Rotates the moves after the best move from the table by the rotation of this engine.
+     * @param _moves        the moves in order of the search
+     * @param _movesCount   number of the moves
+     * @param _firstMove    the best move from the table
+     */
+    private void rotateMoves(int[] _moves, int _movesCount, int _firstMove)
+    {
+        int first = _movesCount > 0 && _moves[0] == _firstMove ? 1 : 0;
+        int rotated = _movesCount - first;
+        if(movesRotation == 0 || rotated < 2) return;
+
+        //three reversals, so the move on the index i goes to the index i + rotation
+        int rotation = movesRotation % rotated;
+        reverse(_moves, first, _movesCount);
+        reverse(_moves, first, first + rotation);
+        reverse(_moves, first + rotation, _movesCount);
+    }
+
+    /**
+     * Reverses the order of the moves in the specified range.
+     * @param _moves    the moves
+     * @param _from     index of the first move of the range
+     * @param _to       index after the last move of the range
+     */
+    private static void reverse(int[] _moves, int _from, int _to)
+    {
+        for(int i = _from, j = _to - 1; i < j; i++, j--)
+        {
+            int move = _moves[i];
+            _moves[i] = _moves[j];
+            _moves[j] = move;
+        }
+    }
+
+    /**
+     * Get the number of the nodes of the last search.
+     * @return      number of searched nodes
+     */
+    long getNodes()
+    {
+        return nodes;
+    }
+
+    /**
+     * Get the number of the boards of the last search cut off by the shallow search.
+     * @return      number of the cut offs by ProbCut
+     */
+    public long getProbCuts()
+    {
+        return probCuts;
+    }
+
+    /**
+     * Get the number of the moves of the last search searched to the reduced depth.
+     * @return      number of the reduced searches
+     */
+    public long getReducedSearches()
+    {
+        return reducedSearches;
+    }
+
+    /**
+     * Get the number of the reduced moves of the last search which were searched again to the full depth,
+     * because they got better than the best move at the reduced depth.
+     * @return      number of the searches again
+     */
+    public long getResearches()
+    {
+        return researches;
+    }
+
+    /**
+     * Get the rate of the searches again of the last search.
+     * @return      the searches again per the reduced search, 0 if no move was reduced
+     */
+    public double getResearchRate()
+    {
+        return reducedSearches > 0 ? (double)researches / reducedSearches : 0;
+    }
+
+    /**
+     * Get the late move reductions of the engine.
+     * @return            the reductions of the late moves
+     */
+    LateMoveReductions getReductions()
+    {
+        return reductions;
+    }
+
+    /**
+     * Get ProbCut of the engine.
+     * @return            the regressions of the deep scores from the shallow scores
+     */
+    ProbCut getProbCut()
+    {
+        return probCut;
+    }
+
+    /**
+     * Get the transposition table of the engine.
+     * @return            the table with the results of the searched positions
+     */
+    TranspositionTable getTable()
+    {
+        return table;
+    }
+
+    /**
+     * Starts a new search. Engines which learn the order of the moves from the searches prepare it here.
+     */
+    void startSearch() { }
+
+    /**
+     * Get the available moves in order of the search: the best move from the table first, then the others.
+     * All empty fields without live lines lead to the same game, so only one of them is searched.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to play on
+     * @param _ply          the depth of the board
+     * @param _firstMove    the move to search first (the best move from the table)
+     * @param _moves        array filled with the moves in order of the search
+     * @return              number of the moves
+     */
+    int orderMoves(Board.State _player, Board _board, int _ply, int _firstMove, int[] _moves)
+    {
+        int movesCount = _board.getDistinctMoves(_moves);
+        TranspositionTable.moveToFront(_moves, 0, movesCount, _firstMove);
+        return movesCount;
+    }
+
+    /**
+     * Saves the move which pruned the other moves of the board.
+     * @param _move     the move which pruned the others
+     * @param _ply      the depth of the board
+     * @param _depth    the depth left to the maximum depth from the board
+     */
+    void saveCutoff(int _move, int _ply, int _depth) { }
+
+    /**
+     * Checks if the search has to be stopped by the deadline or by the flag.
+     * @return            true if the time of the search is over or the search was stopped
+     */
+    private boolean isTimeOut()
+    {
+        if(!timeOut && (++nodes & Algorithms.TIME_CHECK_NODES) == 0)
+            timeOut = stop.get() || (deadline != Algorithms.NO_DEADLINE && System.nanoTime() - deadline >= 0);
+
+        return timeOut;
+    }
+
+    /**
+     * Get the depth left to search from the specified depth.
+     * @param _currentPly the current depth
+     * @return            the depth left to the maximum depth (at most the highest depth of the table)
+     */
+    private int depth(int _currentPly)
+    {
+        return (int)Math.min(maxPly - _currentPly - reduction, TranspositionTable.MAX_DEPTH);
+    }
+
     /**
      * Evaluation function 1.
      * Get the score of the board. 0 if the game is not over.
@@ -122,7 +633,7 @@ public class AlphaBetaPruning
      * @param _board     the Stratego board to play on
      * @return          the score of the board
      */
-    private static int score(Board.State _player, Board _board)
+    int score(Board.State _player, Board _board)
     {
         //if player is Blank throw exception
         if(_player == Board.State.Blank)
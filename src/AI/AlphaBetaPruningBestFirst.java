@@ -0,0 +1,225 @@
+package AI;
+
+import Stratego.Board;
+
+/**
+ * Uses the MTD(f) algorithm to play a move in Stratego game.
+ * It's a best first search made of the AlphaBeta Pruning searches with zero windows
+ * over the transposition table. Every search tells if the score is higher or lower than the guess,
+ * so the bounds of the score close in on it with visiting fewer nodes than the search with a full window.
+ * Every engine keeps its own transposition table, so many games can be played at the same time with their own engines.
+ */
+public class AlphaBetaPruningBestFirst
+{
+    //Score higher than the score of any board
+    private static final int INFINITY = Short.MAX_VALUE;
+
+    private final TranspositionTable table;     //results of the searched positions, kept between the moves
+    private double maxPly;
+    private long nodes;                         //number of searched nodes
+    private int rootBestMove;                   //the best move of the last search with the score above the guess
+    private final int[][] moves = new int[Board.BOARD_SIZE + 1][Board.BOARD_SIZE];  //moves of every depth
+
+    /**
+     * Construct an engine with the transposition table of the default size.
+     */
+    public AlphaBetaPruningBestFirst()
+    {
+        this(TranspositionTable.DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * Construct an engine.
+     * @param _tableSizeMB  size of the transposition table in megabytes
+     */
+    public AlphaBetaPruningBestFirst(int _tableSizeMB)
+    {
+        this.table = new TranspositionTable(_tableSizeMB);
+    }
+
+    /**
+     * Search the best move without playing it.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to search
+     * @param _maxPly       the maximum depth
+     * @return              the result of the search
+     */
+    public SearchResult search(Board.State _player, Board _board, double _maxPly)
+    {
+        if(_maxPly < 1) throw new IllegalArgumentException("Maximum depth must be greater than 0.");
+
+        //every move leads to the same points, there is nothing to search
+        if(!_board.isGameOver() && _board.isOutcomeDecided()) return SearchResult.decided(_player, _board);
+
+        table.newSearch();
+
+        this.maxPly = _maxPly;
+        this.nodes = 0;
+        int score = mtdf(_player, _board, firstGuess(_player, _board));
+
+        //the depth of all empty fields searches the game to the end
+        int depth = (int)Math.min(_maxPly, _board.getAvailableMovesCount());
+        int[] principalVariation = table.principalVariation(_player, _board, rootBestMove, depth);
+        return new SearchResult(rootBestMove, score, principalVariation, nodes, depth);
+    }
+
+    /**
+     * The body of the MTD(f) algorithm.
+     * Searches with zero windows around the guess until the lower and the upper bound of the score meet.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to play on
+     * @param _firstGuess   the first guess of the score
+     * @return              the score of the board
+     */
+    private int mtdf(Board.State _player, Board _board, int _firstGuess)
+    {
+        int score = _firstGuess;
+        int lowerBound = -INFINITY;
+        int upperBound = INFINITY;
+        rootBestMove = TranspositionTable.NO_MOVE;
+
+        while(lowerBound < upperBound)
+        {
+            int beta = score == lowerBound ? score + 1 : score;
+            score = alphaBetaPruning(_player, _board, beta - 1, beta, 0);
+
+            if(score < beta) upperBound = score;
+            else lowerBound = score;
+        }
+
+        return score;
+    }
+
+    /**
+     * Get the first guess of the score: the score of the previous search of the board or 0.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to play on
+     * @return              the first guess of the score
+     */
+    private int firstGuess(Board.State _player, Board _board)
+    {
+        long entry = table.probe(TranspositionTable.key(_player, _board));
+        return entry == TranspositionTable.MISS ? 0 : TranspositionTable.getScore(entry);
+    }
+
+    /**
+     * The body of the AlphaBeta Pruning algorithm with memory.
+     * Returns the best score found even if it's outside the window (fail-soft),
+     * so the bounds in the table and in MTD(f) are as tight as possible.
+     *
+     * @param _player     the player that the AI will identify as
+     * @param _board      the Stratego board to play on
+     * @param _alpha      the alpha value
+     * @param _beta       the beta value
+     * @param _currentPly the current depth
+     * @return            the score of the board
+     */
+    private int alphaBetaPruning(Board.State _player, Board _board, int _alpha, int _beta, int _currentPly)
+    {
+        nodes++;
+
+        //If the game on the board is over return score
+        if(_currentPly == maxPly || _board.isGameOver())
+            return score(_player, _board);
+
+        //the score can't get out of the bounds of the points which can still be earned,
+        //but always search the board the search was started on to find a move
+        if(_currentPly > 0)
+        {
+            int maxScore = _board.getMaxScore(_player);
+            if(maxScore <= _alpha) return maxScore;
+
+            int minScore = _board.getMinScore(_player);
+            if(minScore >= _beta || minScore == maxScore) return minScore;
+        }
+
+        //use the result of the same position if it was searched deep enough,
+        //but always search the board the search was started on to find a move
+        long key = TranspositionTable.key(_player, _board);
+        long entry = table.probe(key);
+        int firstMove = TranspositionTable.NO_MOVE;
+        if(entry != TranspositionTable.MISS)
+        {
+            firstMove = TranspositionTable.getMove(entry);
+
+            if(_currentPly > 0 && TranspositionTable.getDepth(entry) >= depth(_currentPly))
+            {
+                int score = TranspositionTable.getScore(entry);
+                int bound = TranspositionTable.getBound(entry);
+
+                if(bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= _beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= _alpha))
+                    return score;
+            }
+        }
+
+        boolean maximizing = _board.getTurn() == _player;
+        int bestScore = maximizing ? -INFINITY : INFINITY;
+        int indexOfBestMove = TranspositionTable.NO_MOVE;
+        int alpha = _alpha;
+        int beta = _beta;
+
+        //select best (or worst for the opponent) from available moves, one of the equivalent moves only
+        int[] moves = this.moves[_currentPly];
+        int movesCount = _board.getDistinctMoves(moves);
+        TranspositionTable.moveToFront(moves, 0, movesCount, firstMove);
+        for(int i = 0; i < movesCount; i++)
+        {
+            int move = moves[i];
+            _board.makeMove(move);
+            int score = alphaBetaPruning(_player, _board, alpha, beta, _currentPly + 1);
+            _board.undoMove();
+
+            if(maximizing ? score > bestScore : score < bestScore)
+            {
+                bestScore = score;
+                indexOfBestMove = move;
+            }
+
+            if(maximizing) alpha = Math.max(alpha, bestScore);
+            else beta = Math.min(beta, bestScore);
+
+            //prun
+            if(alpha >= beta) break;
+        }
+
+        int bound = bestScore <= _alpha ? TranspositionTable.UPPER_BOUND
+                : bestScore >= _beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        table.store(key, bestScore, depth(_currentPly), bound, indexOfBestMove);
+
+        //the move with the score above the window is the best move so far
+        if(_currentPly == 0 && bestScore >= _beta) rootBestMove = indexOfBestMove;
+        return bestScore;
+    }
+
+    /**
+     * Get the depth left to search from the specified depth.
+     * @param _currentPly the current depth
+     * @return            the depth left to the maximum depth (at most the highest depth of the table)
+     */
+    private int depth(int _currentPly)
+    {
+        return (int)Math.min(maxPly - _currentPly, TranspositionTable.MAX_DEPTH);
+    }
+
+    /**
+     * Evaluation function 1.
+     * Get the score of the board.
+     * @param _player    the player that the AI will identify as
+     * @param _board     the Stratego board to play on
+     * @return          the score of the board
+     */
+    private int score(Board.State _player, Board _board)
+    {
+        //if player is Blank throw exception
+        if(_player == Board.State.Blank)
+            throw new IllegalArgumentException("Player must be Blue or Red");
+
+        int gameScore = _board.countPoints();
+
+        //set the points
+        if(_player == Board.State.Blue) return gameScore;
+        else return gameScore * -1;
+    }
+}
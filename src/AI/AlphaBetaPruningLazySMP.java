@@ -0,0 +1,113 @@
+package AI;
+
+import Stratego.Board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Uses the AlphaBeta Pruning algorithm on many threads (Lazy SMP) to play a move in Stratego game.
+ * The main thread searches deeper and deeper up to the maximum depth. The helper threads search the same board
+ * at the same time, every second of them one depth ahead and every one with other order of the moves.
+ * Every thread searches with its own AlphaBeta Pruning engine made from the engine of the main thread,
+ * all of them share its transposition table, so the main thread finds there the results of the helpers.
+ * The helpers are stopped when the main thread finishes the maximum depth.
+ * Every engine keeps its own table, so many games can be played at the same time with their own engines.
+ */
+public class AlphaBetaPruningLazySMP
+{
+    private final int threads;                  //number of threads (the main thread and the helpers)
+    private final AlphaBetaPruning engine;      //engine of the main thread, the helpers share its table
+
+    /**
+     * Construct an engine.
+     * @param _threads          number of threads (the main thread and the helpers)
+     * @param _startedLines     true to use the evaluation function based on started lines and sorting moves
+     */
+    public AlphaBetaPruningLazySMP(int _threads, boolean _startedLines)
+    {
+        this(_startedLines ? new AlphaBetaPruningSortingMoves() : new AlphaBetaPruning(), _threads);
+    }
+
+    /**
+     * Construct an engine.
+     * @param _engine           the AlphaBeta Pruning engine of the main thread with the evaluation function,
+     *                          the order of the moves and the transposition table to use
+     * @param _threads          number of threads (the main thread and the helpers)
+     */
+    public AlphaBetaPruningLazySMP(AlphaBetaPruning _engine, int _threads)
+    {
+        if(_threads < 1) throw new IllegalArgumentException("Number of threads must be greater than 0.");
+
+        this.threads = _threads;
+        this.engine = _engine;
+    }
+
+    /**
+     * Search the best move without playing it.
+     * @param _player           the player that the AI will identify as
+     * @param _board            the Stratego board to search
+     * @param _maxPly           the maximum depth
+     * @return                  the result of the search
+     */
+    public SearchResult search(Board.State _player, Board _board, double _maxPly)
+    {
+        if(_maxPly < 1) throw new IllegalArgumentException("Maximum depth must be greater than 0.");
+
+        engine.getTable().newSearch();
+
+        //the depth of all empty fields searches the game to the end
+        int maxPly = (int)Math.min(_maxPly, _board.getAvailableMovesCount());
+        AtomicBoolean stopHelpers = new AtomicBoolean();
+        long[] helpersNodes = new long[threads];
+
+        List<Thread> helpers = new ArrayList<>();
+        for(int helper = 1; helper < threads; helper++)
+        {
+            AlphaBetaPruning helperEngine = engine.newEngine();
+            helperEngine.setStop(stopHelpers);
+            helperEngine.setMovesRotation(helper);
+            Board board = _board.getDeepCopy();
+            int firstPly = 1 + helper % 2;
+            int index = helper;
+
+            Thread thread = new Thread(() -> {
+                for(int ply = firstPly; ply <= maxPly && !stopHelpers.get(); ply++)
+                    helpersNodes[index] += helperEngine.continueSearch(_player, board, ply, Algorithms.NO_DEADLINE)
+                            .getNodes();
+            }, "Lazy SMP helper " + helper);
+            thread.setDaemon(true);
+            helpers.add(thread);
+            thread.start();
+        }
+
+        //the main thread is never stopped
+        SearchResult result = new SearchResult(TranspositionTable.NO_MOVE, 0, new int[0], 0, 0);
+        long nodes = 0;
+        for(int ply = 1; ply <= maxPly; ply++)
+        {
+            result = engine.continueSearch(_player, _board, ply, Algorithms.NO_DEADLINE);
+            nodes += result.getNodes();
+        }
+
+        stopHelpers.set(true);
+        for(Thread helper : helpers)
+        {
+            try
+            {
+                helper.join();
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        //nodes of the main thread and of the helpers
+        for(long helperNodes : helpersNodes) nodes += helperNodes;
+
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getPrincipalVariation(), nodes,
+                result.getDepth());
+    }
+}
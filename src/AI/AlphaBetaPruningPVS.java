@@ -0,0 +1,309 @@
+package AI;
+
+import Stratego.Board;
+
+/**
+ * Uses the Principal Variation Search (NegaScout) to play a move in Stratego game.
+ * The first move of every board is searched with the full window, the other moves only with the zero window
+ * to prove they are not better. A move which turns out to be better is searched again with the full window.
+ * The search is negamax: scores are ints in the perspective of the player to move.
+ * The evaluation function, the order of the moves, the transposition table and the late move reductions are taken
+ * from an AlphaBeta Pruning engine, so the numbers of nodes of both searches of the same positions can be compared.
+ * A reduced late move which gets better than alpha is searched again with the zero window to the full depth first.
+ * One engine searches one board at a time.
+ */
+public class AlphaBetaPruningPVS
+{
+    private final AlphaBetaPruning engine;      //evaluation function and order of the moves
+    private final TranspositionTable table;     //results of the searched positions, shared with the engine
+    private final LateMoveReductions reductions;    //reductions of the late moves of the engine
+    private Board.State player;                 //the player that the AI will identify as
+    private double maxPly;
+    private int reduction;                      //sum of the reductions of the moves from the root to the board
+    private long deadline;                      //System.nanoTime() when the search has to stop
+    private boolean timeOut;                    //if the search was stopped by the deadline
+    private long nodes;                         //number of searched nodes, the time is checked every few nodes
+    private long researches;                    //number of the moves searched again with the full window
+    private long reducedSearches;               //number of the moves searched to the reduced depth
+    private long reductionResearches;           //number of the reduced moves searched again to the full depth
+    private int rootBestMove;                   //the best move on the board the search was started on
+    private final int[][] moves = new int[Board.BOARD_SIZE + 1][Board.BOARD_SIZE];  //moves of every depth
+
+    /**
+     * Construct an engine with the evaluation function and the order of the moves of AlphaBetaPruning.
+     */
+    public AlphaBetaPruningPVS()
+    {
+        this(new AlphaBetaPruning());
+    }
+
+    /**
+     * Construct an engine.
+     * @param _engine   the AlphaBeta Pruning engine with the evaluation function, the order of the moves
+     *                  and the transposition table to use
+     */
+    public AlphaBetaPruningPVS(AlphaBetaPruning _engine)
+    {
+        this.engine = _engine;
+        this.table = _engine.getTable();
+        this.reductions = _engine.getReductions();
+    }
+
+    /**
+     * Search the best move without playing it.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to search
+     * @param _maxPly       the maximum depth
+     * @return              the result of the search
+     */
+    public SearchResult search(Board.State _player, Board _board, double _maxPly)
+    {
+        return search(_player, _board, _maxPly, Algorithms.NO_DEADLINE);
+    }
+
+    /**
+     * Search the best move without playing it.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to search
+     * @param _maxPly       the maximum depth
+     * @param _deadline     System.nanoTime() when the search has to stop or Algorithms.NO_DEADLINE
+     * @return              the result of the search, the best move is NO_MOVE if it was stopped by the deadline
+     */
+    SearchResult search(Board.State _player, Board _board, double _maxPly, long _deadline)
+    {
+        if(_maxPly < 1) throw new IllegalArgumentException("Maximum depth must be greater than 0.");
+
+        if(_player == Board.State.Blank)
+            throw new IllegalArgumentException("Player must be Blue or Red");
+
+        //every move leads to the same points, there is nothing to search
+        if(!_board.isGameOver() && _board.isOutcomeDecided()) return SearchResult.decided(_player, _board);
+
+        table.newSearch();
+
+        this.player = _player;
+        this.maxPly = _maxPly;
+        this.deadline = _deadline;
+        this.timeOut = false;
+        this.nodes = 0;
+        this.researches = 0;
+        this.reduction = 0;
+        this.reducedSearches = 0;
+        this.reductionResearches = 0;
+        this.rootBestMove = TranspositionTable.NO_MOVE;
+        engine.startSearch();
+
+        int score = principalVariationSearch(_board, -AlphaBetaPruning.INFINITY, AlphaBetaPruning.INFINITY, 0);
+        if(timeOut) return new SearchResult(TranspositionTable.NO_MOVE, 0, new int[0], nodes, 0);
+        if(_board.getTurn() != _player) score = -score;
+
+        //the depth of all empty fields searches the game to the end
+        int depth = (int)Math.min(_maxPly, _board.getAvailableMovesCount());
+        int[] principalVariation = table.principalVariation(_player, _board, rootBestMove, depth);
+        return new SearchResult(rootBestMove, score, principalVariation, nodes, depth);
+    }
+
+    /**
+     * Get the number of the moves of the last search which were searched again with the full window,
+     * because the zero window search found them better than the best move.
+     * @return      number of the searches again
+     */
+    public long getResearches()
+    {
+        return researches;
+    }
+
+    /**
+     * Get the number of the moves of the last search searched to the reduced depth.
+     * @return      number of the reduced searches
+     */
+    public long getReducedSearches()
+    {
+        return reducedSearches;
+    }
+
+    /**
+     * Get the number of the reduced moves of the last search which were searched again to the full depth,
+     * because they got better than the best move at the reduced depth.
+     * @return      number of the searches again to the full depth
+     */
+    public long getReductionResearches()
+    {
+        return reductionResearches;
+    }
+
+    /**
+     * Get the rate of the searches again of the reduced moves of the last search.
+     * @return      the searches again to the full depth per the reduced search, 0 if no move was reduced
+     */
+    public double getReductionResearchRate()
+    {
+        return reducedSearches > 0 ? (double)reductionResearches / reducedSearches : 0;
+    }
+
+    /**
+     * The body of the Principal Variation Search.
+     * @param _board        the Stratego board to play on
+     * @param _alpha        the alpha value in the perspective of the player to move
+     * @param _beta         the beta value in the perspective of the player to move
+     * @param _currentPly   the current depth
+     * @return              the score of the board in the perspective of the player to move
+     */
+    private int principalVariationSearch(Board _board, int _alpha, int _beta, int _currentPly)
+    {
+        //stop the search if the time is over
+        if(isTimeOut()) return 0;
+
+        Board.State turn = _board.getTurn();
+
+        //If the game on the board is over return score
+        if(_currentPly + reduction >= maxPly || _board.isGameOver())
+        {
+            int score = engine.score(player, _board);
+            return turn == player ? score : -score;
+        }
+
+        //the score can't get out of the bounds of the points which can still be earned,
+        //but always search the board the search was started on to play a move
+        if(_currentPly > 0)
+        {
+            int maxScore = _board.getMaxScore(turn);
+            if(maxScore <= _alpha) return maxScore;
+
+            int minScore = _board.getMinScore(turn);
+            if(minScore >= _beta || minScore == maxScore) return minScore;
+        }
+
+        //use the result of the same position if it was searched deep enough,
+        //but always search the board the search was started on to play a move
+        long key = TranspositionTable.key(player, _board);
+        long entry = table.probe(key);
+        int firstMove = TranspositionTable.NO_MOVE;
+        if(entry != TranspositionTable.MISS)
+        {
+            firstMove = TranspositionTable.getMove(entry);
+
+            if(_currentPly > 0 && TranspositionTable.getDepth(entry) >= depth(_currentPly))
+            {
+                //scores in the table are in the perspective of the player that the AI will identify as
+                int score = TranspositionTable.getScore(entry);
+                int bound = TranspositionTable.getBound(entry);
+                if(turn != player)
+                {
+                    score = -score;
+                    bound = opposite(bound);
+                }
+
+                if(bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= _beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= _alpha))
+                    return score;
+            }
+        }
+
+        int alpha = _alpha;
+        int bestScore = -AlphaBetaPruning.INFINITY;
+        int bestMove = TranspositionTable.NO_MOVE;
+
+        int[] moves = this.moves[_currentPly];
+        int movesCount = engine.orderMoves(player, _board, _currentPly, firstMove, moves);
+        for(int i = 0; i < movesCount; i++)
+        {
+            int move = moves[i];
+            _board.makeMove(move);
+
+            //the first move with the full window, the others only have to be proven worse than it
+            int score;
+            if(i == 0) score = -principalVariationSearch(_board, -_beta, -alpha, _currentPly + 1);
+            else
+            {
+                //the late move is searched to the reduced depth first
+                int moveReduction = reductions.getReduction(depth(_currentPly), i);
+                if(moveReduction > 0)
+                {
+                    reducedSearches++;
+                    reduction += moveReduction;
+                    score = -principalVariationSearch(_board, -alpha - 1, -alpha, _currentPly + 1);
+                    reduction -= moveReduction;
+
+                    if(score > alpha && !timeOut)
+                    {
+                        reductionResearches++;
+                        score = -principalVariationSearch(_board, -alpha - 1, -alpha, _currentPly + 1);
+                    }
+                }
+                else score = -principalVariationSearch(_board, -alpha - 1, -alpha, _currentPly + 1);
+
+                if(score > alpha && score < _beta && !timeOut)
+                {
+                    researches++;
+                    score = -principalVariationSearch(_board, -_beta, -alpha, _currentPly + 1);
+                }
+            }
+            _board.undoMove();
+
+            //score of a stopped search is useless
+            if(timeOut) return 0;
+
+            if(score > bestScore)
+            {
+                bestScore = score;
+                bestMove = move;
+                if(score > alpha) alpha = score;
+            }
+
+            //prun
+            if(alpha >= _beta)
+            {
+                engine.saveCutoff(move, _currentPly, depth(_currentPly));
+                break;
+            }
+        }
+
+        //cut off - lower bound, no move is better than alpha - upper bound
+        int bound = bestScore >= _beta ? TranspositionTable.LOWER_BOUND
+                : bestScore > _alpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        if(turn != player)
+            table.store(key, -bestScore, depth(_currentPly), opposite(bound), bestMove);
+        else
+            table.store(key, bestScore, depth(_currentPly), bound, bestMove);
+
+        //remember the best move of the board the search was started on
+        if(_currentPly == 0) rootBestMove = bestMove;
+        return bestScore;
+    }
+
+    /**
+     * Get the bound of the negated score.
+     * @param _bound    EXACT, LOWER_BOUND or UPPER_BOUND
+     * @return          the bound of the score in the perspective of the other player
+     */
+    private static int opposite(int _bound)
+    {
+        if(_bound == TranspositionTable.LOWER_BOUND) return TranspositionTable.UPPER_BOUND;
+        else if(_bound == TranspositionTable.UPPER_BOUND) return TranspositionTable.LOWER_BOUND;
+        else return _bound;
+    }
+
+    /**
+     * Checks if the search has to be stopped by the deadline.
+     * @return            true if the time of the search is over
+     */
+    private boolean isTimeOut()
+    {
+        if(!timeOut && (++nodes & Algorithms.TIME_CHECK_NODES) == 0 && deadline != Algorithms.NO_DEADLINE)
+            timeOut = System.nanoTime() - deadline >= 0;
+
+        return timeOut;
+    }
+
+    /**
+     * Get the depth left to search from the specified depth.
+     * @param _currentPly the current depth
+     * @return            the depth left to the maximum depth (at most the highest depth of the table)
+     */
+    private int depth(int _currentPly)
+    {
+        return (int)Math.min(maxPly - _currentPly - reduction, TranspositionTable.MAX_DEPTH);
+    }
+}
@@ -0,0 +1,162 @@
+package AI;
+
+import Stratego.Board;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Uses the AlphaBeta Pruning algorithm on many threads to play a move in Stratego game.
+ * The moves of the board the search is started on are split between the threads of the ForkJoinPool,
+ * every move is searched by its own AlphaBeta Pruning engine made from the engine of the first move
+ * on its own copy of the board, all of them share its transposition table. The best score found so far
+ * is shared between the threads as a rising alpha, so the later moves are still pruned.
+ *
+ * The first move is searched before the others to set the alpha. Every other move is searched with the alpha
+ * lowered by one, so the moves as good as the best one get their exact score whenever they are searched
+ * and the first of them in order of the moves is played, so it doesn't depend on the order in which
+ * the threads finish. The table keeps its entries between the searches like the table of AlphaBeta Pruning,
+ * the entries of the previous searches are replaced first.
+ *
+ * Every engine keeps its own table and its own pool of the threads, so many games can be played at the same time
+ * with their own engines. The pool is shut down by close().
+ */
+public class AlphaBetaPruningParallel implements AutoCloseable
+{
+    private final AlphaBetaPruning engine;      //engine of the first move, the others share its table
+    private final ForkJoinPool pool;            //threads of the searches of the moves
+
+    /**
+     * Construct an engine.
+     * @param _threads          number of threads
+     * @param _startedLines     true to use the evaluation function based on started lines and sorting moves
+     */
+    public AlphaBetaPruningParallel(int _threads, boolean _startedLines)
+    {
+        this(_startedLines ? new AlphaBetaPruningSortingMoves() : new AlphaBetaPruning(), _threads);
+    }
+
+    /**
+     * Construct an engine.
+     * @param _engine           the AlphaBeta Pruning engine with the evaluation function, the order of the moves
+     *                          and the transposition table to use
+     * @param _threads          number of threads
+     */
+    public AlphaBetaPruningParallel(AlphaBetaPruning _engine, int _threads)
+    {
+        if(_threads < 1) throw new IllegalArgumentException("Number of threads must be greater than 0.");
+
+        this.engine = _engine;
+        this.pool = new ForkJoinPool(_threads);
+    }
+
+    /**
+     * Shuts down the threads of the engine. The engine can't search after that.
+     */
+    @Override
+    public void close()
+    {
+        pool.shutdown();
+    }
+
+    /**
+     * Search the best move without playing it.
+     * @param _player           the player that the AI will identify as
+     * @param _board            the Stratego board to search
+     * @param _maxPly           the maximum depth
+     * @return                  the result of the search
+     */
+    public SearchResult search(Board.State _player, Board _board, double _maxPly)
+    {
+        if(_maxPly < 1) throw new IllegalArgumentException("Maximum depth must be greater than 0.");
+
+        //every move leads to the same points, there is nothing to search
+        if(!_board.isGameOver() && _board.isOutcomeDecided()) return SearchResult.decided(_player, _board);
+
+        TranspositionTable table = engine.getTable();
+        table.newSearch();
+
+        int[] moves = new int[Board.BOARD_SIZE];
+        //one of the equivalent moves only
+        int movesCount = _board.getDistinctMoves(moves);
+        if(movesCount == 0) return new SearchResult(TranspositionTable.NO_MOVE, 0, new int[0], 0, 0);
+
+        //search the first move alone to set the alpha for the others
+        int firstScore = engine.searchMove(_player, _board.getDeepCopy(), moves[0], _maxPly,
+                Double.NEGATIVE_INFINITY);
+        AtomicInteger alpha = new AtomicInteger(firstScore);
+
+        List<RootMove> rootMoves = new ArrayList<>();
+        for(int i = 1; i < movesCount; i++)
+            rootMoves.add(new RootMove(engine.newEngine(), _player, _board, moves[i], _maxPly, alpha));
+
+        pool.submit(() -> RootMove.invokeAll(rootMoves)).join();
+
+        //the first move with the highest score
+        int indexOfBestMove = moves[0];
+        int bestScore = alpha.get();
+        boolean found = firstScore == bestScore;
+        long nodes = engine.getNodes() + 1;
+        for(RootMove rootMove : rootMoves)
+        {
+            if(!found && rootMove.join() == bestScore)
+            {
+                indexOfBestMove = rootMove.move;
+                found = true;
+            }
+
+            nodes += rootMove.engine.getNodes();
+        }
+
+        //the depth of all empty fields searches the game to the end
+        int depth = (int)Math.min(_maxPly, _board.getAvailableMovesCount());
+        int[] principalVariation = table.principalVariation(_player, _board, indexOfBestMove, depth);
+        return new SearchResult(indexOfBestMove, bestScore, principalVariation, nodes, depth);
+    }
+
+    /**
+     * Search of one move of the board the search is started on.
+     */
+    private static class RootMove extends RecursiveTask<Integer>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final AlphaBetaPruning engine;  //the engine of this move only
+        private final Board.State player;   //the player that the AI will identify as
+        private final Board board;          //copy of the board the search is started on
+        private final int move;
+        private final double maxPly;
+        private final AtomicInteger alpha;  //the best score of the searched moves
+
+        /**
+         * Construct a search of the move.
+         * @param _engine   the engine of the search
+         * @param _player   the player that the AI will identify as
+         * @param _board    the board the search is started on
+         * @param _move     the move to search
+         * @param _maxPly   the maximum depth
+         * @param _alpha    the best score of the searched moves
+         */
+        RootMove(AlphaBetaPruning _engine, Board.State _player, Board _board, int _move, double _maxPly,
+                 AtomicInteger _alpha)
+        {
+            this.engine = _engine;
+            this.player = _player;
+            this.board = _board.getDeepCopy();
+            this.move = _move;
+            this.maxPly = _maxPly;
+            this.alpha = _alpha;
+        }
+
+        @Override
+        protected Integer compute()
+        {
+            int score = engine.searchMove(player, board, move, maxPly, alpha.get() - 1);
+            alpha.accumulateAndGet(score, Math::max);
+            return score;
+        }
+    }
+}
@@ -2,171 +2,146 @@ package AI;
 
 import Stratego.Board;
 
-import java.util.*;
-
-public class AlphaBetaPruningSortingMoves
+import java.util.Arrays;
+
+/**
+ * Uses the AlphaBeta Pruning algorithm with evaluation function based on started lines
+ * and sorting moves to play a move in Stratego game.
+ * Moves are searched in stages: the best move from the table, the two killer moves of the depth
+ * (the last moves which pruned the others on the same depth), then the other moves by the history of the fields
+ * (how often and how deep moves on the field pruned the others).
+ */
+public class AlphaBetaPruningSortingMoves extends AlphaBetaPruningStartedLines
 {
-    private static double maxPly;
+    //Number of killer moves of every depth
+    private static final int KILLER_MOVES = 2;
+    //The whole history is halved when a field gets to this history, so it doesn't overflow
+    private static final int MAX_HISTORY = 1 << 24;
+
+    private final int[][] killerMoves = new int[Board.BOARD_SIZE + 1][KILLER_MOVES];    //killer moves of every depth
+    private final int[] history = new int[Board.BOARD_SIZE];                            //history of every field
+
     /**
-     * AlphaBetaPruning cannot be instantiated.
+     * Construct an engine with the transposition table of the default size.
      */
-    private AlphaBetaPruningSortingMoves() { }
+    public AlphaBetaPruningSortingMoves()
+    {
+        super();
+    }
 
     /**
-     * Execute the algorithm.
-     * @param _player       the player that the AI will identify as
-     * @param _board        the Stratego board to play on
-     * @param _maxPly       the maximum depth
+     * Construct an engine.
+     * @param _tableSizeMB  size of the transposition table in megabytes
      */
-    static void run(Board.State _player, Board _board, double _maxPly)
+    public AlphaBetaPruningSortingMoves(int _tableSizeMB)
     {
-        if(_maxPly < 1) throw new IllegalArgumentException("Maximum depth must be greater than 0.");
-
-        AlphaBetaPruningSortingMoves.maxPly = _maxPly;
-        alphaBetaPruning(_player, _board, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0);
+        super(_tableSizeMB);
     }
 
     /**
-     * The body of the AlphaBeta Pruning algorithm.
-     *
-     * @param _player     the player that the AI will identify as
-     * @param _board      the Stratego board to play on
-     * @param _alpha      the alpha value
-     * @param _beta       the beta value
-     * @param _currentPly the current depth
-     * @return            the score of the board
+     * Construct an engine with the late move reductions.
+     * @param _tableSizeMB  size of the transposition table in megabytes
+     * @param _reductions   reductions of the late moves
      */
-    private static int alphaBetaPruning(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly) {
-        //If the game on the board is over return score
-        if (_currentPly++ == maxPly || _board.isGameOver())
-            return score(_player, _board);
-
-        //get highest or lowest score move depends on which player are identify as AI
-        if (_board.getTurn() == _player) return getMax(_player, _board, _alpha, _beta, _currentPly);
-        else return getMin(_player, _board, _alpha, _beta, _currentPly);
+    public AlphaBetaPruningSortingMoves(int _tableSizeMB, LateMoveReductions _reductions)
+    {
+        super(_tableSizeMB, _reductions);
     }
 
     /**
-     * Play the move with the highest score.
-     * @param _player     the player that the AI will identify as
-     * @param _board      the Stratego board to play on
-     * @param _alpha      the alpha value
-     * @param _beta       the beta value
-     * @param _currentPly the current depth
-     * @return            the score of the board
+     * Construct an engine with the late move reductions and ProbCut.
+     * @param _tableSizeMB  size of the transposition table in megabytes
+     * @param _reductions   reductions of the late moves
+     * @param _probCut      regressions of the deep scores from the shallow scores
      */
-    private static int getMax(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly)
+    public AlphaBetaPruningSortingMoves(int _tableSizeMB, LateMoveReductions _reductions, ProbCut _probCut)
     {
-        int indexOfBestMove = -1;
-
-        //select best from available moves
-        List<Integer> availableMoves = sortAvailableMoves(_player, _board, _board.getAvailableMoves());
-        for(Integer move : availableMoves)
-        {
-            Board modifiedBoard = _board.getDeepCopy();
-            modifiedBoard.move(move);
-            int score = alphaBetaPruning(_player, modifiedBoard, _alpha, _beta, _currentPly);
-
-            if(score > _alpha)
-            {
-                _alpha = score;
-                indexOfBestMove = move;
-            }
-
-            //prun
-            if(_alpha >= _beta) break;
-        }
-
-        if(indexOfBestMove != -1) _board.move(indexOfBestMove);
-        return (int)_alpha;
+        super(_tableSizeMB, _reductions, _probCut);
     }
 
     /**
-     * Play the move with the lowest score.
-     * @param _player     the player that the AI will identify as
-     * @param _board      the Stratego board to play on
-     * @param _alpha      the alpha value
-     * @param _beta       the beta value
-     * @param _currentPly the current depth
-     * @return            the score of the board
+     * Construct an engine with the specified transposition table.
+     * @param _table        transposition table, it can be shared with other engines
+     * @param _reductions   reductions of the late moves
+     * @param _probCut      regressions of the deep scores from the shallow scores
      */
-    private static int getMin(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly)
+    AlphaBetaPruningSortingMoves(TranspositionTable _table, LateMoveReductions _reductions, ProbCut _probCut)
     {
-        int indexOfBestMove = -1;
+        super(_table, _reductions, _probCut);
+    }
 
-        List<Integer> availableMoves = sortAvailableMoves(_player, _board, _board.getAvailableMoves());
-        Collections.reverse(availableMoves);
-        for(Integer move : availableMoves)
-        {
-            Board modifiedBoard = _board.getDeepCopy();
-            modifiedBoard.move(move);
-            int score = alphaBetaPruning(_player, modifiedBoard, _alpha, _beta, _currentPly);
-
-            if(score < _beta)
-            {
-                _beta= score;
-                indexOfBestMove = move;
-            }
-
-            //prun
-            if(_alpha >= _beta) break;
-        }
+    /**
+     * Get a new engine of the same kind which shares the transposition table, the reductions
+     * and ProbCut of this engine, so it can search on another thread.
+     * @return              the new engine
+     */
+    @Override
+    AlphaBetaPruning newEngine()
+    {
+        return new AlphaBetaPruningSortingMoves(getTable(), getReductions(), getProbCut());
+    }
 
-        if(indexOfBestMove != -1) _board.move(indexOfBestMove);
-        return (int)_beta;
+    /**
+     * Starts a new search. Killer moves are forgotten, the history of the previous searches is halved.
+     */
+    @Override
+    void startSearch()
+    {
+        for(int[] killers : killerMoves) Arrays.fill(killers, TranspositionTable.NO_MOVE);
+        for(int field = 0; field < history.length; field++) history[field] >>= 1;
     }
 
     /**
-     * Sort moves in game states tree using an evaluation function
-     * @param _player     the player that the AI will identify as
-     * @param _board      the Stratego board to play on
-     * @param _availableMoves    available moves to sort
-     * @return                   sorted available moves
+     * Get the available moves in order of the search: the best move from the table, the killer moves,
+     * then the other moves by the history from the highest.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to play on
+     * @param _ply          the depth of the board
+     * @param _firstMove    the move to search first (the best move from the table)
+     * @param _moves        array filled with the moves in order of the search
+     * @return              number of the moves
      */
-    private static List<Integer> sortAvailableMoves(Board.State _player, Board _board, HashSet<Integer> _availableMoves)
+    @Override
+    int orderMoves(Board.State _player, Board _board, int _ply, int _firstMove, int[] _moves)
     {
-        List<Integer> sortedMoves = new ArrayList<>();
-        HashMap<Integer, Integer> movesWithCostToSort = new HashMap<>();
-        //select best from available moves
-        for(Integer move : _availableMoves)
-        {
-            Board modifiedBoard = _board.getDeepCopy();
-            modifiedBoard.move(move);
-            //add to HashMap to sort
-            movesWithCostToSort.put(move, score(_player, modifiedBoard));
-        }
+        int movesCount = _board.getDistinctMoves(_moves);
 
-        List<Map.Entry<Integer, Integer>> sortedList = new ArrayList<>(movesWithCostToSort.entrySet());
-        sortedList.sort(Map.Entry.comparingByValue());
-        Collections.reverse(sortedList);
+        int sorted = TranspositionTable.moveToFront(_moves, 0, movesCount, _firstMove);
+        for(int killer : killerMoves[_ply])
+            sorted = TranspositionTable.moveToFront(_moves, sorted, movesCount, killer);
 
-        for (Map.Entry<Integer, Integer> entry : sortedList)
-            sortedMoves.add(entry.getKey());
+        //insertion sort of the other moves, the moves with the same history stay in order of the fields
+        for(int i = sorted + 1; i < movesCount; i++)
+        {
+            int move = _moves[i];
+            int j = i - 1;
+            for(; j >= sorted && history[_moves[j]] < history[move]; j--)
+                _moves[j + 1] = _moves[j];
+            _moves[j + 1] = move;
+        }
 
-        return sortedMoves;
+        return movesCount;
     }
 
     /**
-     * Evaluation function 2.
-     * Get the score of the board. 0 if the game is not over.
-     * @param _player    the player that the AI will identify as
-     * @param _board     the Stratego board to play on
-     * @return          the score of the board
+     * Saves the move which pruned the other moves as the killer move of the depth
+     * and adds the square of the depth left to its history.
+     * @param _move     the move which pruned the others
+     * @param _ply      the depth of the board
+     * @param _depth    the depth left to the maximum depth from the board
      */
-    private static int score(Board.State _player, Board _board)
+    @Override
+    void saveCutoff(int _move, int _ply, int _depth)
     {
-        //if player is Blank throw exception
-        if(_player == Board.State.Blank)
-            throw new IllegalArgumentException("Player must be Blue or Red");
-
-        //set opponent
-//        Board.State opponent = (_player == Board.State.Blue) ? Board.State.Blue : Board.State.Red;
-
-        int gameScore = _board.countPointsIncludesStartedLines();
+        int[] killers = killerMoves[_ply];
+        if(killers[0] != _move)
+        {
+            killers[1] = killers[0];
+            killers[0] = _move;
+        }
 
-        //set the points
-        if(_player == Board.State.Blue) return gameScore;
-        else if(_player == Board.State.Red) return gameScore * -1;
-        else return 0;
+        history[_move] += _depth * _depth;
+        if(history[_move] >= MAX_HISTORY)
+            for(int field = 0; field < history.length; field++) history[field] >>= 1;
     }
 }
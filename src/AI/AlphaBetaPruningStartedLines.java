@@ -2,115 +2,70 @@ package AI;
 
 import Stratego.Board;
 
-import java.util.*;
-
-public class AlphaBetaPruningStartedLines
+/**
+ * Uses the AlphaBeta Pruning algorithm with evaluation function based on started lines
+ * to play a move in Stratego game.
+ */
+public class AlphaBetaPruningStartedLines extends AlphaBetaPruning
 {
-    private static double maxPly;
     /**
-     * AlphaBetaPruning cannot be instantiated.
+     * Construct an engine with the transposition table of the default size.
      */
-    private AlphaBetaPruningStartedLines() { }
+    public AlphaBetaPruningStartedLines()
+    {
+        super();
+    }
 
     /**
-     * Execute the algorithm.
-     * @param _player       the player that the AI will identify as
-     * @param _board        the Stratego board to play on
-     * @param _maxPly       the maximum depth
+     * Construct an engine.
+     * @param _tableSizeMB  size of the transposition table in megabytes
      */
-    static void run(Board.State _player, Board _board, double _maxPly)
+    public AlphaBetaPruningStartedLines(int _tableSizeMB)
     {
-        if(_maxPly < 1) throw new IllegalArgumentException("Maximum depth must be greater than 0.");
-
-        AlphaBetaPruningStartedLines.maxPly = _maxPly;
-        alphaBetaPruning(_player, _board, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0);
+        super(_tableSizeMB);
     }
 
     /**
-     * The body of the AlphaBeta Pruning algorithm.
-     *
-     * @param _player     the player that the AI will identify as
-     * @param _board      the Stratego board to play on
-     * @param _alpha      the alpha value
-     * @param _beta       the beta value
-     * @param _currentPly the current depth
-     * @return            the score of the board
+     * Construct an engine with the late move reductions.
+     * @param _tableSizeMB  size of the transposition table in megabytes
+     * @param _reductions   reductions of the late moves
      */
-    private static int alphaBetaPruning(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly) {
-        //If the game on the board is over return score
-        if (_currentPly++ == maxPly || _board.isGameOver())
-            return score(_player, _board);
-
-        //get highest or lowest score move depends on which player are identify as AI
-        if (_board.getTurn() == _player) return getMax(_player, _board, _alpha, _beta, _currentPly);
-        else return getMin(_player, _board, _alpha, _beta, _currentPly);
+    public AlphaBetaPruningStartedLines(int _tableSizeMB, LateMoveReductions _reductions)
+    {
+        super(_tableSizeMB, _reductions);
     }
 
     /**
-     * Play the move with the highest score.
-     * @param _player     the player that the AI will identify as
-     * @param _board      the Stratego board to play on
-     * @param _alpha      the alpha value
-     * @param _beta       the beta value
-     * @param _currentPly the current depth
-     * @return            the score of the board
+     * Construct an engine with the late move reductions and ProbCut.
+     * @param _tableSizeMB  size of the transposition table in megabytes
+     * @param _reductions   reductions of the late moves
+     * @param _probCut      regressions of the deep scores from the shallow scores
      */
-    private static int getMax(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly)
+    public AlphaBetaPruningStartedLines(int _tableSizeMB, LateMoveReductions _reductions, ProbCut _probCut)
     {
-        int indexOfBestMove = -1;
-
-        //select best from available moves
-        for(Integer move : _board.getAvailableMoves())
-        {
-            Board modifiedBoard = _board.getDeepCopy();
-            modifiedBoard.move(move);
-            int score = alphaBetaPruning(_player, modifiedBoard, _alpha, _beta, _currentPly);
-
-            if(score > _alpha)
-            {
-                _alpha = score;
-                indexOfBestMove = move;
-            }
-
-            //prun
-            if(_alpha >= _beta) break;
-        }
-
-        if(indexOfBestMove != -1) _board.move(indexOfBestMove);
-        return (int)_alpha;
+        super(_tableSizeMB, _reductions, _probCut);
     }
 
     /**
-     * Play the move with the lowest score.
-     * @param _player     the player that the AI will identify as
-     * @param _board      the Stratego board to play on
-     * @param _alpha      the alpha value
-     * @param _beta       the beta value
-     * @param _currentPly the current depth
-     * @return            the score of the board
+     * Construct an engine with the specified transposition table.
+     * @param _table        transposition table, it can be shared with other engines
+     * @param _reductions   reductions of the late moves
+     * @param _probCut      regressions of the deep scores from the shallow scores
      */
-    private static int getMin(Board.State _player, Board _board, double _alpha, double _beta, int _currentPly)
+    AlphaBetaPruningStartedLines(TranspositionTable _table, LateMoveReductions _reductions, ProbCut _probCut)
     {
-        int indexOfBestMove = -1;
-
-        for(Integer move : _board.getAvailableMoves())
-        {
-            Board modifiedBoard = _board.getDeepCopy();
-            modifiedBoard.move(move);
-            int score = alphaBetaPruning(_player, modifiedBoard, _alpha, _beta, _currentPly);
-
-            if(score < _beta)
-            {
-                _beta= score;
-                indexOfBestMove = move;
-            }
-
-            //prun
-            if(_alpha >= _beta) break;
-        }
+        super(_table, _reductions, _probCut);
+    }
 
-        if(indexOfBestMove != -1) _board.move(indexOfBestMove);
-        return (int)_beta;
+    /**
+     * Get a new engine of the same kind which shares the transposition table, the reductions
+     * and ProbCut of this engine, so it can search on another thread.
+     * @return              the new engine
+     */
+    @Override
+    AlphaBetaPruning newEngine()
+    {
+        return new AlphaBetaPruningStartedLines(getTable(), getReductions(), getProbCut());
     }
 
     /**
@@ -120,15 +75,13 @@ public class AlphaBetaPruningStartedLines
      * @param _board     the Stratego board to play on
      * @return          the score of the board
      */
-    private static int score(Board.State _player, Board _board)
+    @Override
+    int score(Board.State _player, Board _board)
     {
         //if player is Blank throw exception
         if(_player == Board.State.Blank)
             throw new IllegalArgumentException("Player must be Blue or Red");
 
-        //set opponent
-//        Board.State opponent = (_player == Board.State.Blue) ? Board.State.Blue : Board.State.Red;
-
         int gameScore = _board.countPointsIncludesStartedLines();
 
         //set the points
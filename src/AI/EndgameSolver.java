@@ -0,0 +1,295 @@
+package AI;
+
+import Stratego.Board;
+
+import java.util.Arrays;
+
+/**
+ * Exact solver of the end of Stratego game: searches all empty fields to the end of the game
+ * and finds the score of the perfect play of both players.
+ * The score is found by zero-window searches (is the score at least beta?) over the transposition table
+ * of the solver, every search narrows the bounds of the score from the points still reachable on the board.
+ * Only the distinct moves are searched (one of the empty fields without live lines) and the last empty field
+ * with live lines is always taken at once.
+ * Every solver keeps its own transposition table, one solver solves one board at a time.
+ */
+public class EndgameSolver
+{
+    //Default size of the transposition table of the solver in megabytes
+    public static final int DEFAULT_SIZE_MB = 4;
+    //Moves of the boards with more empty fields are ordered by the points after them
+    private static final int ORDERING_EMPTY_FIELDS = 4;
+
+    private final TranspositionTable table;     //results of the solved positions, kept between the solves
+    private long deadline;                      //System.nanoTime() when the solve has to stop
+    private boolean timeOut;                    //if the solve was stopped by the deadline
+    private long nodes;                         //number of searched nodes, the time is checked every few nodes
+    private final int[][] moves = new int[Board.BOARD_SIZE + 1][Board.BOARD_SIZE];  //moves of every depth
+    private final int[][] movesOrder = new int[Board.BOARD_SIZE + 1][Board.BOARD_SIZE]; //scores of the moves
+
+    /**
+     * Construct a solver with the transposition table of the default size.
+     */
+    public EndgameSolver()
+    {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * Construct a solver.
+     * @param _tableSizeMB  size of the transposition table in megabytes
+     */
+    public EndgameSolver(int _tableSizeMB)
+    {
+        this.table = new TranspositionTable(_tableSizeMB);
+    }
+
+    /**
+     * Solve the board: find the best move of the perfect play without playing it.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to solve
+     * @return              the result of the solve with the exact score of the end of the game
+     */
+    public SearchResult search(Board.State _player, Board _board)
+    {
+        return search(_player, _board, Algorithms.NO_DEADLINE);
+    }
+
+    /**
+     * Solve the board: find the best move of the perfect play without playing it.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to solve
+     * @param _deadline     System.nanoTime() when the solve has to stop or Algorithms.NO_DEADLINE
+     * @return              the result of the solve, the best move is NO_MOVE if it was stopped by the deadline
+     */
+    SearchResult search(Board.State _player, Board _board, long _deadline)
+    {
+        if(_player == Board.State.Blank)
+            throw new IllegalArgumentException("Player must be Blue or Red");
+
+        if(_board.isGameOver()) throw new IllegalStateException("Stratego game is over. No moves can be played.");
+
+        //every move leads to the same points, there is nothing to solve
+        if(_board.isOutcomeDecided()) return SearchResult.decided(_player, _board);
+
+        table.newSearch();
+
+        this.deadline = _deadline;
+        this.timeOut = false;
+        this.nodes = 0;
+
+        //the score and the moves of the perfect play from the board, in the perspective of the player to move
+        int score = solve(_board);
+        int[] principalVariation = principalVariation(_board, score);
+        if(timeOut) return new SearchResult(TranspositionTable.NO_MOVE, 0, new int[0], nodes, 0);
+
+        if(_board.getTurn() != _player) score = -score;
+        return new SearchResult(principalVariation[0], score, principalVariation, nodes,
+                _board.getAvailableMovesCount());
+    }
+
+    /**
+     * Get the number of nodes of the last solve.
+     * @return      number of searched nodes
+     */
+    public long getNodes()
+    {
+        return nodes;
+    }
+
+    /**
+     * Finds the exact score of the board by the zero-window searches.
+     * Every search tells if the score is at least the middle of the bounds, so it halves the bounds.
+     * @param _board    the Stratego board to solve
+     * @return          the score of the perfect play in the perspective of the player to move
+     */
+    private int solve(Board _board)
+    {
+        Board.State turn = _board.getTurn();
+        int lower = _board.getMinScore(turn);
+        int upper = _board.getMaxScore(turn);
+
+        while(lower < upper && !timeOut)
+        {
+            int beta = lower + (upper - lower + 1) / 2;
+            int score = zeroWindow(_board, beta, 0);
+
+            //the score which fails is also a bound of the exact score
+            if(score >= beta) lower = score;
+            else upper = score;
+        }
+
+        return lower;
+    }
+
+    /**
+     * Finds the moves of the perfect play: the first move of every board which gets the exact score.
+     * @param _board    the Stratego board the solve was started on (it's the same after the call)
+     * @param _score    the exact score of the board in the perspective of the player to move
+     * @return          indexes of the fields of the moves to the end of the game or to the decided result
+     */
+    private int[] principalVariation(Board _board, int _score)
+    {
+        int[] principalVariation = new int[_board.getAvailableMovesCount()];
+        int length = 0;
+
+        while(!_board.isOutcomeDecided() && !timeOut)
+        {
+            int[] moves = this.moves[0];
+            int movesCount = orderMoves(_board, 0, TranspositionTable.NO_MOVE);
+
+            //the move after which the opponent can't get more than the negated score
+            int bestMove = TranspositionTable.NO_MOVE;
+            for(int i = 0; i < movesCount && bestMove == TranspositionTable.NO_MOVE; i++)
+            {
+                _board.makeMove(moves[i]);
+                if(-zeroWindow(_board, 1 - _score, 1) >= _score) bestMove = moves[i];
+                _board.undoMove();
+            }
+
+            if(bestMove == TranspositionTable.NO_MOVE) break;
+            _board.makeMove(bestMove);
+            principalVariation[length++] = bestMove;
+            _score = -_score;
+        }
+
+        for(int i = 0; i < length; i++) _board.undoMove();
+        return Arrays.copyOf(principalVariation, length);
+    }
+
+    /**
+     * The zero-window search: is the score of the board at least beta?
+     * @param _board        the Stratego board to solve
+     * @param _beta         the tested score, the window is (beta - 1, beta)
+     * @param _currentPly   the current depth
+     * @return              the score if it's at least beta, otherwise the bound of the score lower than beta
+     */
+    private int zeroWindow(Board _board, int _beta, int _currentPly)
+    {
+        //stop the solve if the time is over
+        if(isTimeOut()) return 0;
+
+        //the score can't get out of the bounds of the points which can still be earned,
+        //at the end of the game or with the decided result both bounds are the exact score
+        Board.State turn = _board.getTurn();
+        int maxScore = _board.getMaxScore(turn);
+        if(maxScore < _beta) return maxScore;
+
+        int minScore = _board.getMinScore(turn);
+        if(minScore >= _beta || minScore == maxScore) return minScore;
+
+        //use the bound of the same position from the table
+        long key = _board.getHashKey();
+        long entry = table.probe(key);
+        int firstMove = TranspositionTable.NO_MOVE;
+        if(entry != TranspositionTable.MISS)
+        {
+            int score = TranspositionTable.getScore(entry);
+            int bound = TranspositionTable.getBound(entry);
+
+            if(bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER_BOUND && score >= _beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && score < _beta))
+                return score;
+
+            firstMove = TranspositionTable.getMove(entry);
+        }
+
+        int bestScore = -AlphaBetaPruning.INFINITY;
+        int bestMove = TranspositionTable.NO_MOVE;
+
+        int[] moves = this.moves[_currentPly];
+        int movesCount = orderMoves(_board, _currentPly, firstMove);
+        for(int i = 0; i < movesCount; i++)
+        {
+            int move = moves[i];
+            _board.makeMove(move);
+            int score = -zeroWindow(_board, 1 - _beta, _currentPly + 1);
+            _board.undoMove();
+
+            //score of a stopped solve is useless
+            if(timeOut) return 0;
+
+            if(score > bestScore)
+            {
+                bestScore = score;
+                bestMove = move;
+                if(score >= _beta) break;
+            }
+        }
+
+        //all searched positions are solved to the end, so the number of empty fields is the depth
+        int bound = bestScore >= _beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.UPPER_BOUND;
+        table.store(key, bestScore, _board.getAvailableMovesCount(), bound, bestMove);
+        return bestScore;
+    }
+
+    /**
+     * Get the moves of the board in order of the search.
+     * The last empty field with live lines is the only move: the player who takes it gets the points of its lines
+     * or takes them from the opponent, any other move only lets the opponent take it.
+     * Otherwise the best move from the table is first and with many empty fields the other moves are ordered
+     * by the pessimistic and optimistic score of the player and the points of the started lines after them.
+     * @param _board        the Stratego board to solve
+     * @param _ply          the depth of the board
+     * @param _firstMove    the move to search first (the best move from the table) or NO_MOVE
+     * @return              number of the moves in the moves of the depth
+     */
+    private int orderMoves(Board _board, int _ply, int _firstMove)
+    {
+        int[] moves = this.moves[_ply];
+
+        long relevant = _board.getEmptyFields() & ~_board.getIrrelevantMoves();
+        if(Long.bitCount(relevant) == 1)
+        {
+            moves[0] = Long.numberOfTrailingZeros(relevant);
+            return 1;
+        }
+
+        int movesCount = _board.getDistinctMoves(moves);
+        int sorted = TranspositionTable.moveToFront(moves, 0, movesCount, _firstMove);
+        if(_board.getAvailableMovesCount() <= ORDERING_EMPTY_FIELDS) return movesCount;
+
+        //insertion sort by the bounds of the score and the points of the started lines after the move,
+        //from the highest
+        Board.State turn = _board.getTurn();
+        int[] order = this.movesOrder[_ply];
+        for(int i = sorted; i < movesCount; i++)
+        {
+            _board.makeMove(moves[i]);
+            int startedLines = _board.countPointsIncludesStartedLines();
+            if(turn == Board.State.Red) startedLines = -startedLines;
+
+            order[i] = 2 * (_board.getMinScore(turn) + _board.getMaxScore(turn)) + startedLines;
+            _board.undoMove();
+        }
+
+        for(int i = sorted + 1; i < movesCount; i++)
+        {
+            int move = moves[i];
+            int score = order[i];
+            int j = i - 1;
+            for(; j >= sorted && order[j] < score; j--)
+            {
+                moves[j + 1] = moves[j];
+                order[j + 1] = order[j];
+            }
+            moves[j + 1] = move;
+            order[j + 1] = score;
+        }
+
+        return movesCount;
+    }
+
+    /**
+     * Checks if the solve has to be stopped by the deadline.
+     * @return            true if the time of the solve is over
+     */
+    private boolean isTimeOut()
+    {
+        if(!timeOut && (++nodes & Algorithms.TIME_CHECK_NODES) == 0 && deadline != Algorithms.NO_DEADLINE)
+            timeOut = System.nanoTime() - deadline >= 0;
+
+        return timeOut;
+    }
+}
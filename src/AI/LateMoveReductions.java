@@ -0,0 +1,87 @@
+package AI;
+
+import Stratego.Board;
+
+/**
+ * Table of the late move reductions: how many plies less the late moves of the board are searched.
+ * The first moves in order of the search are searched to the full depth, the later moves usually don't
+ * get better than them and are searched to the reduced depth first. A move which gets better is searched again
+ * to the full depth.
+ * The reduction is read by the depth left to search from the board and by the number of the move in order
+ * of the search. It's never so big that the move isn't searched at least one ply deep.
+ */
+public class LateMoveReductions
+{
+    //Default number of the first moves which are never reduced and the lowest depth left to search where the moves
+    //are reduced. Stratego.ReductionBenchmark (depth 5, 40 empty fields) plays the move of the search without
+    //the reductions in 85% of the positions with them and in 45% with 3 moves from depth 4
+    public static final int DEFAULT_FULL_DEPTH_MOVES = 8;
+    public static final int DEFAULT_MIN_DEPTH = 5;
+    //Default reduction is DEFAULT_BASE + ln(depth) * ln(move number) / DEFAULT_DIVISOR, rounded down
+    public static final double DEFAULT_BASE = 0.5;
+    public static final double DEFAULT_DIVISOR = 2.5;
+
+    //Table without reductions
+    public static final LateMoveReductions NONE = new LateMoveReductions(new int[0][0]);
+
+    private final byte[][] reductions = new byte[Board.BOARD_SIZE + 1][Board.BOARD_SIZE]; //[depth][move number]
+
+    /**
+     * Construct the table with the default parameters.
+     */
+    public LateMoveReductions()
+    {
+        this(DEFAULT_FULL_DEPTH_MOVES, DEFAULT_MIN_DEPTH, DEFAULT_BASE, DEFAULT_DIVISOR);
+    }
+
+    /**
+     * Construct the table of the reductions base + ln(depth) * ln(move number) / divisor, rounded down.
+     * @param _fullDepthMoves   number of the first moves which are never reduced (at least 1)
+     * @param _minDepth         the lowest depth left to search where the moves are reduced
+     * @param _base             the reduction of every late move
+     * @param _divisor          the higher the divisor, the lower the reductions of the deep boards and late moves
+     */
+    public LateMoveReductions(int _fullDepthMoves, int _minDepth, double _base, double _divisor)
+    {
+        if(_fullDepthMoves < 1) throw new IllegalArgumentException("At least the first move must not be reduced.");
+        if(_divisor <= 0) throw new IllegalArgumentException("Divisor must be greater than 0.");
+
+        for(int depth = Math.max(_minDepth, 0); depth < reductions.length; depth++)
+            for(int moveNumber = _fullDepthMoves; moveNumber < Board.BOARD_SIZE; moveNumber++)
+                set(depth, moveNumber, (int)(_base + Math.log(depth) * Math.log(moveNumber + 1) / _divisor));
+    }
+
+    /**
+     * Construct the table from the reductions of every depth and move number.
+     * Missing depths and move numbers are not reduced, the first move is never reduced.
+     * @param _reductions   reductions by the depth left to search and the number of the move in order of the search
+     */
+    public LateMoveReductions(int[][] _reductions)
+    {
+        for(int depth = 0; depth < Math.min(_reductions.length, reductions.length); depth++)
+            for(int moveNumber = 1; moveNumber < Math.min(_reductions[depth].length, Board.BOARD_SIZE); moveNumber++)
+                set(depth, moveNumber, _reductions[depth][moveNumber]);
+    }
+
+    /**
+     * Get the reduction of the move.
+     * @param _depth        the depth left to search from the board
+     * @param _moveNumber   number of the move in order of the search, from 0
+     * @return              number of the plies the move is searched less
+     */
+    public int getReduction(int _depth, int _moveNumber)
+    {
+        return reductions[Math.max(Math.min(_depth, Board.BOARD_SIZE), 0)][_moveNumber];
+    }
+
+    /**
+     * Sets the reduction, so the reduced move is still searched at least one ply deep.
+     * @param _depth        the depth left to search from the board
+     * @param _moveNumber   number of the move in order of the search
+     * @param _reduction    the reduction
+     */
+    private void set(int _depth, int _moveNumber, int _reduction)
+    {
+        reductions[_depth][_moveNumber] = (byte)Math.max(Math.min(_reduction, _depth - 2), 0);
+    }
+}
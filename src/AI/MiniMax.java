@@ -2,30 +2,50 @@ package AI;
 
 import Stratego.Board;
 
+import java.util.Arrays;
+
 /**
  * Uses the MiniMax algorithm to play a move in a Stratego game.
+ * Every engine keeps its own state of the search, so many games can be played at the same time
+ * with their own engines. One engine searches one board at a time.
  */
 public class MiniMax
 {
-    private static double maxPly;
+    private double maxPly;
+    private long nodes;                             //number of searched nodes
+    private int[][] principalVariations;            //the best moves from every depth to the end of the search
+    private int[] principalVariationsEnds;          //depth where the best moves from every depth end
+    private final int[][] moves = new int[Board.BOARD_SIZE + 1][Board.BOARD_SIZE];  //moves of every depth
 
     /**
-     * MiniMax cannot be instantiated.
+     * Construct an engine.
      */
-    private MiniMax() {}
+    public MiniMax() {}
 
     /**
-     * Execute the MiniMax algorithm.
+     * Search the best move with the MiniMax algorithm without playing it.
      * @param _player       the player that the Ai will identify as
-     * @param _board        the Stratego board to play on
+     * @param _board        the Stratego board to search
      * @param _maxPly       the maximum depth
+     * @return              the result of the search
      */
-    static void run(Board.State _player, Board _board, double _maxPly)
+    public SearchResult search(Board.State _player, Board _board, double _maxPly)
     {
         if(_maxPly < 1) throw new IllegalArgumentException("Maximum depth must be greater than 0.");
 
-        MiniMax.maxPly = _maxPly;
-        miniMax(_player, _board, 0);
+        //the depth of all empty fields searches the game to the end
+        int depth = (int)Math.min(_maxPly, _board.getAvailableMovesCount());
+
+        this.maxPly = _maxPly;
+        this.nodes = 0;
+        this.principalVariations = new int[depth + 1][depth];
+        this.principalVariationsEnds = new int[depth + 1];
+
+        int score = miniMax(_player, _board, 0);
+
+        int[] principalVariation = Arrays.copyOf(principalVariations[0], principalVariationsEnds[0]);
+        int bestMove = principalVariation.length > 0 ? principalVariation[0] : TranspositionTable.NO_MOVE;
+        return new SearchResult(bestMove, score, principalVariation, nodes, depth);
     }
 
     /**
@@ -35,8 +55,11 @@ public class MiniMax
      * @param _currentPly   the current depth
      * @return              the score of the board
      */
-    private static int miniMax(Board.State _player, Board _board, int _currentPly)
+    private int miniMax(Board.State _player, Board _board, int _currentPly)
     {
+        nodes++;
+        principalVariationsEnds[_currentPly] = _currentPly;
+
         //If the game on the board is over return score
         if(_currentPly++ == maxPly || _board.isGameOver())
             return score(_player, _board);
@@ -47,76 +70,90 @@ public class MiniMax
     }
 
     /**
-     * Play the move with the highest score.
+     * Search the move with the highest score.
      * @param _player       the player that the AI will identify as
      * @param _board        the Stratego board to play on
      * @param _currentPly   the current depth
      * @return              the score of the board
      */
-    private static int getMax(Board.State _player, Board _board, int _currentPly)
+    private int getMax(Board.State _player, Board _board, int _currentPly)
     {
         double bestScore = Double.NEGATIVE_INFINITY;
-        int indexOfBestMove = -1;
 
         //select best from available moves
-        for(Integer move: _board.getAvailableMoves())
+        int[] moves = this.moves[_currentPly];
+        int movesCount = _board.getAvailableMoves(moves);
+        for(int i = 0; i < movesCount; i++)
         {
-            Board modifiedBoard = _board.getDeepCopy();
-            modifiedBoard.move(move);
+            int move = moves[i];
+            _board.makeMove(move);
 
-            int score = miniMax(_player, modifiedBoard, _currentPly);
+            int score = miniMax(_player, _board, _currentPly);
+            _board.undoMove();
 
             if(score >= bestScore)
             {
                 bestScore = score;
-                indexOfBestMove = move;
+                savePrincipalVariation(_currentPly - 1, move);
             }
         }
 
-        //play a highest score move and return score of this move
-        _board.move(indexOfBestMove);
         return (int)bestScore;
     }
 
     /**
-     * Play the move with the lowest score.
+     * Search the move with the lowest score.
      * @param _player       the player that the AI will identify as
      * @param _board        the Stratego board to play on
      * @param _currentPly   the current depth
      * @return              the score of the board
      */
-    private static int getMin(Board.State _player, Board _board, int _currentPly)
+    private int getMin(Board.State _player, Board _board, int _currentPly)
     {
         double bestScore = Double.POSITIVE_INFINITY;
-        int indexOfBestMove = -1;
 
         //select worst from available moves
-        for(Integer move : _board.getAvailableMoves())
+        int[] moves = this.moves[_currentPly];
+        int movesCount = _board.getAvailableMoves(moves);
+        for(int i = 0; i < movesCount; i++)
         {
-            Board modifiedBoard = _board.getDeepCopy();
-            modifiedBoard.move(move);
+            int move = moves[i];
+            _board.makeMove(move);
 
-            int score = miniMax(_player, modifiedBoard, _currentPly);
+            int score = miniMax(_player, _board, _currentPly);
+            _board.undoMove();
 
             if(score <= bestScore)
             {
                 bestScore = score;
-                indexOfBestMove = move;
+                savePrincipalVariation(_currentPly - 1, move);
             }
         }
 
-        //play a lowest score move and return score of this move
-        _board.move(indexOfBestMove);
         return (int)bestScore;
     }
 
+    /**
+     * Saves the best move of the depth followed by the best moves after it.
+     * @param _ply      the depth of the move
+     * @param _move     the best move
+     */
+    private void savePrincipalVariation(int _ply, int _move)
+    {
+        int end = principalVariationsEnds[_ply + 1];
+
+        principalVariations[_ply][_ply] = _move;
+        System.arraycopy(principalVariations[_ply + 1], _ply + 1, principalVariations[_ply], _ply + 1, end - _ply - 1);
+        principalVariationsEnds[_ply] = end;
+    }
+
     /**
      * Get the score of the board. 0 if the game is not over.
      * @param _player    the player that the AI will identify as
      * @param _board     the Stratego board to play on
      * @return          the score of the board
      */
-    private static int score(Board.State _player, Board _board)
+    private int score(Board.State _player, Board _board)
     {
         //if player is Blank throw exception
         if(_player == Board.State.Blank)
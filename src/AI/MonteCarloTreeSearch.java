@@ -0,0 +1,781 @@
+package AI;
+
+import Stratego.Board;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Uses the Monte Carlo Tree Search (UCT) to play a move in Stratego game.
+ * Every iteration goes down the tree by the UCT formula (the win rate of the move plus the exploration
+ * of the moves with few visits), adds the moves of the reached board to the tree, plays the game
+ * to the end with random moves (a playout) and adds its result to all boards on the way.
+ * The search can be stopped at any time, the move with the most visits is the best one.
+ *
+ * The tree is kept in preallocated arrays of primitives (one index for every node), the children of every node
+ * are next to each other. Playouts fill in the bitboards of the fields without playing the moves on the board,
+ * the empty fields are picked by bit tricks on their mask.
+ *
+ * Many threads go down the same tree, every one with its own copy of the board and random generator.
+ * Visits and rewards are atomic counters. The visit is added on the way down and the reward after the playout,
+ * so till then the node looks like a loss (virtual loss) and the other threads choose other moves meanwhile.
+ * A node is expanded by the thread which claims it first, the others play out from it in the meantime.
+ *
+ * The tree is kept between the searches: if the board of the next search follows from the board of the previous
+ * one by moves of the tree, the subtree of the played moves becomes the tree and the other nodes are freed.
+ * When the tree is full, its nodes only get visits and are not expanded anymore.
+ * The tree can also grow on the opponent's time (pondering) till the opponent plays its move.
+ * Every engine keeps its own tree and random generator, one engine searches one board at a time.
+ */
+public class MonteCarloTreeSearch
+{
+    //Default exploration constant of the UCT formula
+    public static final double DEFAULT_EXPLORATION = Math.sqrt(2);
+    //Default maximum number of nodes of the tree
+    public static final int DEFAULT_MAX_NODES = 1 << 20;
+
+    //Rewards are counted in half points: win, draw, loss of the player who played the move
+    private static final int WIN = 2;
+    private static final int DRAW = 1;
+    //First child of the node which is being expanded by one of the threads
+    private static final int EXPANDING = -1;
+    //The time of the search is checked every TIME_CHECK_PLAYOUTS + 1 playouts of every thread
+    private static final int TIME_CHECK_PLAYOUTS = 0xF;
+
+    /**
+     * Policy of the moves of the playouts.
+     */
+    public enum Playout
+    {
+        //any empty field
+        RANDOM,
+        //empty fields with live lines at the start of the playout only (other fields change no points)
+        RELEVANT
+    }
+
+    private final double exploration;           //exploration constant of the UCT formula
+    private final Playout playout;              //policy of the moves of the playouts
+    private final int threads;                  //number of threads going down the tree
+    private final SplittableRandom random;      //random generator, split for the threads of every search
+    private final int maxNodes;                 //maximum number of nodes, full tree only gets visits
+
+    //Nodes of the tree, the root is node 0. The moves and the number of the children are written before
+    //the first child is set, so every thread which gets the first child of a node sees its children.
+    private final byte[] nodeMoves;                     //move which leads to the node
+    private final AtomicIntegerArray firstChildren;     //index of the first child, 0 if not expanded or EXPANDING
+    private final byte[] childrenCounts;                //number of the children
+    private final AtomicIntegerArray visits;            //number of playouts through the node, also the unfinished
+    private final AtomicLongArray rewards;              //sum of rewards of the player who played the move of the node
+    private final AtomicLongArray points;               //sum of Blue points minus Red points of the playouts
+    private final AtomicInteger nodesCount = new AtomicInteger();
+
+    private long rootBlueFields;                //Blue fields of the board of the root
+    private long rootRedFields;                 //Red fields of the board of the root
+
+    private long playouts;                      //number of playouts of the last search
+    private long searchTime;                    //time of the last search in nanoseconds
+
+    /**
+     * Construct an engine with the default exploration, random playouts, one thread and the tree of the default size.
+     */
+    public MonteCarloTreeSearch()
+    {
+        this(DEFAULT_EXPLORATION, Playout.RANDOM);
+    }
+
+    /**
+     * Construct an engine with one thread and the tree of the default size.
+     * @param _exploration  exploration constant of the UCT formula
+     * @param _playout      policy of the moves of the playouts
+     */
+    public MonteCarloTreeSearch(double _exploration, Playout _playout)
+    {
+        this(_exploration, _playout, 1);
+    }
+
+    /**
+     * Construct an engine with the tree of the default size.
+     * @param _exploration  exploration constant of the UCT formula
+     * @param _playout      policy of the moves of the playouts
+     * @param _threads      number of threads going down the tree
+     */
+    public MonteCarloTreeSearch(double _exploration, Playout _playout, int _threads)
+    {
+        this(_exploration, _playout, _threads, DEFAULT_MAX_NODES, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Construct an engine.
+     * @param _exploration  exploration constant of the UCT formula
+     * @param _playout      policy of the moves of the playouts
+     * @param _threads      number of threads going down the tree
+     * @param _maxNodes     maximum number of nodes of the tree
+     * @param _seed         seed of the random generator of the playouts
+     */
+    public MonteCarloTreeSearch(double _exploration, Playout _playout, int _threads, int _maxNodes, long _seed)
+    {
+        if(_exploration < 0) throw new IllegalArgumentException("Exploration must not be negative.");
+        if(_threads < 1) throw new IllegalArgumentException("Number of threads must be greater than 0.");
+        if(_maxNodes < Board.BOARD_SIZE + 1)
+            throw new IllegalArgumentException("Tree must have at least " + (Board.BOARD_SIZE + 1) + " nodes.");
+
+        this.exploration = _exploration;
+        this.playout = _playout;
+        this.threads = _threads;
+        this.random = new SplittableRandom(_seed);
+        this.maxNodes = _maxNodes;
+
+        this.nodeMoves = new byte[_maxNodes];
+        this.firstChildren = new AtomicIntegerArray(_maxNodes);
+        this.childrenCounts = new byte[_maxNodes];
+        this.visits = new AtomicIntegerArray(_maxNodes);
+        this.rewards = new AtomicLongArray(_maxNodes);
+        this.points = new AtomicLongArray(_maxNodes);
+    }
+
+    /**
+     * Search the best move for the specified time without playing it.
+     * @param _player           the player that the AI will identify as
+     * @param _board            the Stratego board to search
+     * @param _timeLimitMillis  the time limit of the search in milliseconds
+     * @return                  the result of the search, nodes are the playouts
+     */
+    public SearchResult search(Board.State _player, Board _board, long _timeLimitMillis)
+    {
+        if(_timeLimitMillis < 1) throw new IllegalArgumentException("Time limit must be greater than 0.");
+        return search(_player, _board, Long.MAX_VALUE, System.nanoTime() + _timeLimitMillis * 1000000);
+    }
+
+    /**
+     * Search the best move with the specified number of playouts without playing it.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to search
+     * @param _playouts     the number of playouts
+     * @return              the result of the search, nodes are the playouts
+     */
+    public SearchResult searchPlayouts(Board.State _player, Board _board, long _playouts)
+    {
+        if(_playouts < 1) throw new IllegalArgumentException("Number of playouts must be greater than 0.");
+        return search(_player, _board, _playouts, Algorithms.NO_DEADLINE);
+    }
+
+    /**
+     * Get the number of playouts of the last search.
+     * @return      number of playouts of all threads
+     */
+    public long getPlayouts()
+    {
+        return playouts;
+    }
+
+    /**
+     * Get the speed of the last search.
+     * @return      number of playouts of all threads per second
+     */
+    public double getPlayoutsPerSecond()
+    {
+        return searchTime > 0 ? playouts * 1e9 / searchTime : 0;
+    }
+
+    /**
+     * Get the number of playouts through the root of the tree.
+     * @return      playouts of the last search and of the previous searches kept in the subtree of the board
+     */
+    public int getRootVisits()
+    {
+        return visits.get(0);
+    }
+
+    /**
+     * Get the number of nodes of the tree.
+     * @return      number of nodes after the last search, they are reused by the next search
+     */
+    public int getNodesCount()
+    {
+        return nodesCount.get();
+    }
+
+    /**
+     * Search the board on the opponent's time until the flag is set, so the next search starts from its tree.
+     * The tree grows under the moves the opponent is likely to play, the search after the move of the opponent
+     * keeps the subtree of the move. The flag can be set from any thread, the call returns soon after that.
+     * @param _board        the Stratego board with the opponent to move (it's the same after the call)
+     * @param _stop         the flag which stops the search
+     */
+    public void ponder(Board _board, AtomicBoolean _stop)
+    {
+        if(_board.isGameOver() || _board.isOutcomeDecided()) return;
+        grow(_board, Long.MAX_VALUE, Algorithms.NO_DEADLINE, _stop);
+    }
+
+    /**
+     * Search the best move until the number of playouts or the deadline.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board to search (it's the same after the call)
+     * @param _maxPlayouts  the maximum number of playouts
+     * @param _deadline     System.nanoTime() when the search has to stop or Algorithms.NO_DEADLINE
+     * @return              the result of the search, nodes are the playouts
+     */
+    private SearchResult search(Board.State _player, Board _board, long _maxPlayouts, long _deadline)
+    {
+        if(_player == Board.State.Blank)
+            throw new IllegalArgumentException("Player must be Blue or Red");
+
+        if(_board.isGameOver()) throw new IllegalStateException("Stratego game is over. No moves can be played.");
+
+        //every move leads to the same points, there is nothing to search
+        if(_board.isOutcomeDecided()) return SearchResult.decided(_player, _board);
+
+        grow(_board, _maxPlayouts, _deadline, new AtomicBoolean());
+        return result(_player, _board);
+    }
+
+    /**
+     * Grows the tree of the board by the threads until the number of playouts, the deadline or the flag.
+     * Every move of the board gets at least one playout, unless the flag is set.
+     * @param _board        the Stratego board to search (it's the same after the call)
+     * @param _maxPlayouts  the maximum number of playouts
+     * @param _deadline     System.nanoTime() when the search has to stop or Algorithms.NO_DEADLINE
+     * @param _stop         the flag which stops the search, set by the first thread which reaches the deadline
+     */
+    private void grow(Board _board, long _maxPlayouts, long _deadline, AtomicBoolean _stop)
+    {
+        long start = System.nanoTime();
+        if(!reuseTree(_board)) clear();
+        rootBlueFields = _board.getBlueFields();
+        rootRedFields = _board.getRedFields();
+
+        //at least one playout for every move of the board, so the best move is always found
+        if(firstChildren.get(0) == 0) expand(0, _board, new int[Board.BOARD_SIZE]);
+        long minPlayouts = childrenCounts[0];
+
+        AtomicLong startedPlayouts = new AtomicLong();
+
+        List<Thread> helpers = new ArrayList<>();
+        List<Worker> workers = new ArrayList<>();
+        for(int helper = 1; helper < threads; helper++)
+        {
+            Worker worker = new Worker(_board.getDeepCopy(), random.split());
+            workers.add(worker);
+
+            Thread thread = new Thread(() -> worker.run(startedPlayouts, _stop, _maxPlayouts, minPlayouts, _deadline),
+                    "MCTS helper " + helper);
+            thread.setDaemon(true);
+            helpers.add(thread);
+            thread.start();
+        }
+
+        //the calling thread searches too
+        Worker worker = new Worker(_board, random.split());
+        workers.add(worker);
+        worker.run(startedPlayouts, _stop, _maxPlayouts, minPlayouts, _deadline);
+
+        for(Thread helper : helpers)
+        {
+            try
+            {
+                helper.join();
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        //playouts of the calling thread and of the helpers
+        playouts = 0;
+        for(Worker finished : workers) playouts += finished.playouts;
+
+        searchTime = System.nanoTime() - start;
+    }
+
+    /**
+     * Removes all nodes but the root from the tree.
+     */
+    private void clear()
+    {
+        nodesCount.set(1);
+        firstChildren.set(0, 0);
+        childrenCounts[0] = 0;
+        visits.set(0, 0);
+        rewards.set(0, 0);
+        points.set(0, 0);
+    }
+
+    /**
+     * Finds the board in the tree of the previous search and makes its subtree the tree.
+     * The board is found by going down from the previous root: the player to move takes one of its fields
+     * taken since the previous search in every move. The children of the tree are only the distinct moves
+     * (see Board.getDistinctMoves()), so a taken field which is not a child is matched with its child
+     * by a symmetry of the board or, if both are irrelevant, by exchanging them. The moves of the subtree
+     * are then moved the same way, so the tree is a tree of the board of the search again.
+     * @param _board    the Stratego board of the search
+     * @return          true if the board was found in the tree
+     */
+    private boolean reuseTree(Board _board)
+    {
+        if(nodesCount.get() == 0) return false;
+
+        //fields of the previous root are still taken by the same players
+        long blueFields = _board.getBlueFields();
+        long redFields = _board.getRedFields();
+        if((blueFields & rootBlueFields) != rootBlueFields || (redFields & rootRedFields) != rootRedFields)
+            return false;
+
+        long newBlueFields = blueFields & ~rootBlueFields;
+        long newRedFields = redFields & ~rootRedFields;
+        int movesCount = Long.bitCount(newBlueFields | newRedFields);
+
+        //the board of the previous root, the moves since then are the last moves of the board
+        Board board = _board.getDeepCopy();
+        for(int i = 0; i < movesCount; i++) board.undoMove();
+        if(board.getBlueFields() != rootBlueFields || board.getRedFields() != rootRedFields) return false;
+
+        //fields of the board of the search for the fields of the moves of the tree
+        int[] fields = new int[Board.BOARD_SIZE];
+        for(int field = 0; field < Board.BOARD_SIZE; field++) fields[field] = field;
+        boolean moved = false;
+        boolean exchanged = false;
+
+        int node = 0;
+        for(int i = 0; i < movesCount; i++)
+        {
+            int first = firstChildren.get(node);
+            boolean blueTurn = board.getTurn() == Board.State.Blue;
+            long newFields = blueTurn ? newBlueFields : newRedFields;
+
+            //the taken field itself first, then the fields the symmetries and the exchanges move it to
+            int next = 0;
+            int move = 0;
+            for(int child = first; child < first + childrenCounts[node] && first > 0 && next == 0; child++)
+            {
+                move = fields[nodeMoves[child]];
+                if((newFields & (1L << move)) != 0) next = child;
+            }
+
+            int symmetries = board.getSymmetries() & ~(1 << Board.IDENTITY);
+            long irrelevant = board.getIrrelevantMoves();
+            for(int child = first; child < first + childrenCounts[node] && first > 0 && next == 0; child++)
+            {
+                int childMove = fields[nodeMoves[child]];
+                for(int rest = symmetries; rest != 0 && next == 0; rest &= rest - 1)
+                {
+                    int symmetry = Integer.numberOfTrailingZeros(rest);
+                    move = Board.getSymmetricField(childMove, symmetry);
+                    if((newFields & (1L << move)) == 0) continue;
+
+                    for(int field = 0; field < Board.BOARD_SIZE; field++)
+                        fields[field] = Board.getSymmetricField(fields[field], symmetry);
+                    moved = true;
+                    next = child;
+                }
+
+                //irrelevant fields change no points, the games after them are the same with the fields exchanged
+                if(next == 0 && (irrelevant & (1L << childMove)) != 0 && (newFields & irrelevant) != 0)
+                {
+                    move = Long.numberOfTrailingZeros(newFields & irrelevant);
+                    for(int field = 0; field < Board.BOARD_SIZE; field++)
+                    {
+                        if(fields[field] == childMove) fields[field] = move;
+                        else if(fields[field] == move) fields[field] = childMove;
+                    }
+                    moved = true;
+                    exchanged = true;
+                    next = child;
+                }
+            }
+
+            if(next == 0) return false;
+            if(blueTurn) newBlueFields &= ~(1L << move);
+            else newRedFields &= ~(1L << move);
+
+            board.makeMove(move);
+            node = next;
+        }
+
+        compact(node);
+
+        if(moved)
+        {
+            int count = nodesCount.get();
+            for(int child = 1; child < count; child++) nodeMoves[child] = (byte)fields[nodeMoves[child]];
+        }
+
+        //the symmetries of the boards of the subtree can change with the exchanged fields,
+        //the nodes which miss some moves then are expanded again
+        if(exchanged) expandMissingMoves(0, board);
+        return true;
+    }
+
+    /**
+     * Removes the children of the nodes of the subtree which don't have a child for every move of their board
+     * (every move, its symmetric moves and all irrelevant moves if it's irrelevant), so the nodes are expanded
+     * again. The removed children stay unused till the tree is compacted again.
+     * @param _node     index of the node
+     * @param _board    the Stratego board of the node (it's the same after the call)
+     */
+    private void expandMissingMoves(int _node, Board _board)
+    {
+        int first = firstChildren.get(_node);
+        if(first <= 0) return;
+
+        int symmetries = _board.getSymmetries();
+        long irrelevant = _board.getIrrelevantMoves();
+        long covered = 0L;
+        for(int child = first; child < first + childrenCounts[_node]; child++)
+        {
+            int move = nodeMoves[child];
+            if((irrelevant & (1L << move)) != 0) covered |= irrelevant;
+            for(int rest = symmetries; rest != 0; rest &= rest - 1)
+                covered |= 1L << Board.getSymmetricField(move, Integer.numberOfTrailingZeros(rest));
+        }
+
+        if(covered != _board.getEmptyFields())
+        {
+            firstChildren.set(_node, 0);
+            childrenCounts[_node] = 0;
+            return;
+        }
+
+        for(int child = first; child < first + childrenCounts[_node]; child++)
+        {
+            _board.makeMove(nodeMoves[child]);
+            expandMissingMoves(child, _board);
+            _board.undoMove();
+        }
+    }
+
+    /**
+     * Makes the node the root and frees all nodes out of its subtree.
+     * The nodes of the subtree keep their order at the start of the arrays: the new index of a node is the number
+     * of the nodes of the subtree before it. So every node moves to a lower or the same index and it's done in place.
+     * @param _root     index of the new root
+     */
+    private void compact(int _root)
+    {
+        int count = nodesCount.get();
+        long[] subtree = new long[(count + 63) >>> 6];
+        int[] ranks = new int[subtree.length + 1];
+
+        //children are always after their parents, so one pass marks the whole subtree
+        subtree[_root >>> 6] |= 1L << _root;
+        for(int node = _root; node < count; node++)
+        {
+            int first = firstChildren.get(node);
+            if((subtree[node >>> 6] & (1L << node)) == 0 || first <= 0) continue;
+
+            for(int child = first; child < first + childrenCounts[node]; child++)
+                subtree[child >>> 6] |= 1L << child;
+        }
+
+        //number of the nodes of the subtree before every word of the mask
+        for(int word = 0; word < subtree.length; word++)
+            ranks[word + 1] = ranks[word] + Long.bitCount(subtree[word]);
+
+        for(int node = _root; node < count; node++)
+        {
+            if((subtree[node >>> 6] & (1L << node)) == 0) continue;
+
+            int index = rank(subtree, ranks, node);
+            int first = firstChildren.get(node);
+
+            nodeMoves[index] = nodeMoves[node];
+            firstChildren.set(index, first > 0 ? rank(subtree, ranks, first) : 0);
+            childrenCounts[index] = childrenCounts[node];
+            visits.set(index, visits.get(node));
+            rewards.set(index, rewards.get(node));
+            points.set(index, points.get(node));
+        }
+
+        nodesCount.set(ranks[subtree.length]);
+    }
+
+    /**
+     * Get the number of the set bits of the mask lower than the index.
+     * @param _mask     the mask
+     * @param _ranks    number of the set bits before every word of the mask
+     * @param _index    index of the bit
+     * @return          number of the set bits before the index
+     */
+    private static int rank(long[] _mask, int[] _ranks, int _index)
+    {
+        return _ranks[_index >>> 6] + Long.bitCount(_mask[_index >>> 6] & ((1L << _index) - 1));
+    }
+
+    /**
+     * Adds the distinct moves of the board as the children of the node, if no other thread expands it
+     * and the tree has room for them.
+     * @param _node     index of the node which is not expanded
+     * @param _board    the Stratego board of the node
+     * @param _moves    array for the moves of the board
+     * @return          true if the children were added
+     */
+    private boolean expand(int _node, Board _board, int[] _moves)
+    {
+        if(!firstChildren.compareAndSet(_node, 0, EXPANDING)) return false;
+
+        int movesCount = _board.getDistinctMoves(_moves);
+        int first;
+        do
+        {
+            first = nodesCount.get();
+            if(movesCount == 0 || first + movesCount > maxNodes)
+            {
+                firstChildren.set(_node, 0);
+                return false;
+            }
+        }
+        while(!nodesCount.compareAndSet(first, first + movesCount));
+
+        for(int i = 0; i < movesCount; i++)
+        {
+            int child = first + i;
+            nodeMoves[child] = (byte)_moves[i];
+            firstChildren.set(child, 0);
+            childrenCounts[child] = 0;
+            visits.set(child, 0);
+            rewards.set(child, 0);
+            points.set(child, 0);
+        }
+
+        childrenCounts[_node] = (byte)movesCount;
+        firstChildren.set(_node, first);
+        return true;
+    }
+
+    /**
+     * Selects the child of the node with the highest UCT value. Children without visits are selected first.
+     * @param _node     index of the expanded node
+     * @param _first    index of the first child of the node
+     * @return          index of the selected child
+     */
+    private int select(int _node, int _first)
+    {
+        int last = _first + childrenCounts[_node];
+        double logVisits = Math.log(Math.max(visits.get(_node), 1));
+
+        int best = _first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for(int child = _first; child < last; child++)
+        {
+            int childVisits = visits.get(child);
+            if(childVisits == 0) return child;
+
+            double value = rewards.get(child) / (double)(WIN * childVisits)
+                    + exploration * Math.sqrt(logVisits / childVisits);
+            if(value > bestValue)
+            {
+                bestValue = value;
+                best = child;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Get the result of the search: the most visited moves from the root.
+     * If no move of the root has a playout, the result is the first move of the board with the points of one playout.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board of the root
+     * @return              the result with the average points of the playouts of the best move
+     */
+    private SearchResult result(Board.State _player, Board _board)
+    {
+        int[] principalVariation = new int[_board.getAvailableMovesCount()];
+        int length = 0;
+        int bestNode = TranspositionTable.NO_MOVE;
+
+        for(int node = 0; firstChildren.get(node) > 0; )
+        {
+            int first = firstChildren.get(node);
+            int best = first;
+            for(int child = first + 1; child < first + childrenCounts[node]; child++)
+                if(visits.get(child) > visits.get(best)) best = child;
+
+            if(visits.get(best) == 0) break;
+            if(length == 0) bestNode = best;
+            principalVariation[length++] = nodeMoves[best];
+            node = best;
+        }
+
+        int score;
+        if(bestNode != TranspositionTable.NO_MOVE)
+            score = (int)Math.round(points.get(bestNode) / (double)visits.get(bestNode));
+        else
+        {
+            //no move of the root got a playout (the root couldn't be expanded in the full tree
+            //or the search was stopped), the first move is played and scored by one playout
+            int[] moves = new int[Board.BOARD_SIZE];
+            _board.getDistinctMoves(moves);
+            Board board = _board.getDeepCopy();
+            board.makeMove(moves[0]);
+            principalVariation[length++] = moves[0];
+            score = new Worker(board, random.split()).playout();
+            playouts++;
+        }
+        if(_player == Board.State.Red) score = -score;
+
+        return new SearchResult(principalVariation[0], score, Arrays.copyOf(principalVariation, length), playouts,
+                length);
+    }
+
+    /**
+     * Get the index of the n-th lowest set bit of the mask. Halves of the mask with fewer set bits than n
+     * are skipped by counting the bits, then the lowest bits of the last byte are cleared.
+     * @param _mask     the mask
+     * @param _n        number of the set bits to skip (lower than the number of the set bits of the mask)
+     * @return          index of the bit
+     */
+    static int nthSetBit(long _mask, int _n)
+    {
+        int offset = 0;
+        for(int width = 32; width >= 8; width >>= 1)
+        {
+            int lowerBits = Long.bitCount(_mask & (((1L << width) - 1) << offset));
+            if(_n >= lowerBits)
+            {
+                _n -= lowerBits;
+                offset += width;
+            }
+        }
+
+        long bits = _mask >>> offset;
+        for(; _n > 0; _n--) bits &= bits - 1;
+        return offset + Long.numberOfTrailingZeros(bits);
+    }
+
+    /**
+     * One thread of the search with its own board and random generator.
+     */
+    private final class Worker
+    {
+        private final Board board;                  //board of the root, the same after every iteration
+        private final SplittableRandom random;      //random generator of the playouts
+        private final int[] path = new int[Board.BOARD_SIZE + 1];   //nodes from the root of the iteration
+        private final int[] moves = new int[Board.BOARD_SIZE];      //moves of the expanded board
+        private long playouts;                      //number of playouts of the thread
+
+        /**
+         * Construct a thread of the search.
+         * @param _board    the board of the root for the thread
+         * @param _random   random generator of the thread
+         */
+        Worker(Board _board, SplittableRandom _random)
+        {
+            this.board = _board;
+            this.random = _random;
+        }
+
+        /**
+         * Searches until all threads together reach the number of playouts or the deadline.
+         * @param _startedPlayouts  playouts started by all threads
+         * @param _stop             the flag which stops the search, set by the first thread which reaches the deadline
+         * @param _maxPlayouts      the maximum number of playouts
+         * @param _minPlayouts      playouts which are played even after the deadline
+         * @param _deadline         System.nanoTime() when the search has to stop or Algorithms.NO_DEADLINE
+         */
+        void run(AtomicLong _startedPlayouts, AtomicBoolean _stop, long _maxPlayouts, long _minPlayouts,
+                 long _deadline)
+        {
+            while(!_stop.get())
+            {
+                long started = _startedPlayouts.getAndIncrement();
+                if(started >= _maxPlayouts) break;
+
+                if(started >= _minPlayouts && (playouts & TIME_CHECK_PLAYOUTS) == 0
+                        && _deadline != Algorithms.NO_DEADLINE && System.nanoTime() - _deadline >= 0)
+                {
+                    _stop.set(true);
+                    break;
+                }
+
+                iterate();
+                playouts++;
+            }
+        }
+
+        /**
+         * One iteration of the search: selection of the nodes down the tree, expansion of the reached node,
+         * playout from its board and update of the nodes on the way by its result.
+         */
+        private void iterate()
+        {
+            int depth = 0;
+            int node = 0;
+            path[0] = 0;
+            visits.incrementAndGet(0);
+
+            //down the tree by the UCT formula to the node which is not expanded yet,
+            //the visit without the reward is a loss for the other threads till the end of the playout
+            for(int first = firstChildren.get(node); first > 0; first = firstChildren.get(node))
+            {
+                node = select(node, first);
+                visits.incrementAndGet(node);
+                board.makeMove(nodeMoves[node]);
+                path[++depth] = node;
+            }
+
+            //the node gets its children at its second visit (the root is always expanded), its first child
+            //is played out at once
+            if(visits.get(node) > 1 && !board.isOutcomeDecided() && expand(node, board, moves))
+            {
+                node = firstChildren.get(node);
+                visits.incrementAndGet(node);
+                board.makeMove(nodeMoves[node]);
+                path[++depth] = node;
+            }
+
+            int blueScore = playout();
+
+            //the player who played the move of the node gets the reward
+            for(; depth >= 0; depth--)
+            {
+                node = path[depth];
+                if(depth > 0) board.undoMove();
+
+                Board.State mover = board.getTurn();
+                int score = mover == Board.State.Blue ? blueScore : -blueScore;
+
+                rewards.addAndGet(node, score > 0 ? WIN : score == 0 ? DRAW : 0);
+                points.addAndGet(node, blueScore);
+            }
+        }
+
+        /**
+         * Plays the game on the board to the end with random moves.
+         * Only the bitboards of the fields are filled in (by turns from the player to move), no move is played
+         * on the board and the points are counted once at the end.
+         * @return          Blue points minus Red points at the end of the game
+         */
+        private int playout()
+        {
+            long blueFields = board.getBlueFields();
+            long redFields = board.getRedFields();
+            boolean blueTurn = board.getTurn() == Board.State.Blue;
+
+            //fields without live lines at the start of the playout change no points till its end
+            long fields = board.getEmptyFields();
+            if(playout == Playout.RELEVANT) fields &= ~board.getIrrelevantMoves();
+
+            for(int fieldsCount = Long.bitCount(fields); fieldsCount > 0; fieldsCount--)
+            {
+                long field = 1L << nthSetBit(fields, random.nextInt(fieldsCount));
+                fields ^= field;
+
+                if(blueTurn) blueFields |= field;
+                else redFields |= field;
+                blueTurn = !blueTurn;
+            }
+
+            return Board.countPoints(blueFields, redFields);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package AI;
+
+import Stratego.Board;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Parameters of the ProbCut forward pruning.
+ * The score of the deep search of a board is estimated from the score of the shallow search of the same board
+ * by the linear regression deep = slope * shallow + intercept, with the standard deviation sigma of the error.
+ * If the estimate is out of the window by more than threshold * sigma, the board is cut off without the deep search.
+ * The scores are in the perspective of the player to move, the regression of every deep depth is fitted
+ * by the calibration (see Stratego.ProbCutCalibration) and stored in a file.
+ * Depths deeper than the deepest fitted depth use its regression with the same difference of the depths.
+ */
+public class ProbCut
+{
+    //Default number of sigmas the estimate has to be out of the window to cut off the board
+    public static final double DEFAULT_THRESHOLD = 1.0;
+
+    //ProbCut without parameters, no board is cut off
+    public static final ProbCut NONE = new ProbCut(DEFAULT_THRESHOLD, new double[0][]);
+
+    private final double threshold;             //number of sigmas of the cut off
+    private final int[] shallowDepths = new int[Board.BOARD_SIZE + 1];      //0 if the depth is not fitted
+    private final double[] slopes = new double[Board.BOARD_SIZE + 1];
+    private final double[] intercepts = new double[Board.BOARD_SIZE + 1];
+    private final double[] sigmas = new double[Board.BOARD_SIZE + 1];
+    private int deepestDepth;                   //the deepest fitted depth, 0 if none
+
+    /**
+     * Construct ProbCut.
+     * @param _threshold    number of sigmas the estimate has to be out of the window to cut off the board
+     * @param _parameters   rows of the regressions: deep depth, shallow depth, slope, intercept, sigma
+     */
+    public ProbCut(double _threshold, double[][] _parameters)
+    {
+        if(_threshold < 0) throw new IllegalArgumentException("Threshold must not be negative.");
+        this.threshold = _threshold;
+
+        for(double[] row : _parameters)
+        {
+            int depth = (int)row[0];
+            int shallowDepth = (int)row[1];
+            if(depth < 1 || depth > Board.BOARD_SIZE || shallowDepth < 1 || shallowDepth >= depth)
+                throw new IllegalArgumentException("Shallow depth must be between 1 and the deep depth.");
+            if(row[2] <= 0 || row[4] < 0)
+                throw new IllegalArgumentException("Slope must be positive and sigma must not be negative.");
+
+            shallowDepths[depth] = shallowDepth;
+            slopes[depth] = row[2];
+            intercepts[depth] = row[3];
+            sigmas[depth] = row[4];
+            deepestDepth = Math.max(deepestDepth, depth);
+        }
+    }
+
+    /**
+     * Get ProbCut with the same regressions and another threshold.
+     * @param _threshold    number of sigmas the estimate has to be out of the window to cut off the board
+     * @return              the new ProbCut
+     */
+    public ProbCut withThreshold(double _threshold)
+    {
+        return new ProbCut(_threshold, getParameters());
+    }
+
+    /**
+     * Get the regressions.
+     * @return      rows of the regressions: deep depth, shallow depth, slope, intercept, sigma
+     */
+    public double[][] getParameters()
+    {
+        int rows = 0;
+        for(int shallowDepth : shallowDepths) if(shallowDepth > 0) rows++;
+
+        double[][] parameters = new double[rows][];
+        for(int depth = 0, row = 0; depth < shallowDepths.length; depth++)
+            if(shallowDepths[depth] > 0)
+                parameters[row++] = new double[] { depth, shallowDepths[depth], slopes[depth], intercepts[depth],
+                        sigmas[depth] };
+
+        return parameters;
+    }
+
+    /**
+     * Get the depth of the shallow search of the board.
+     * @param _depth    the depth left to search from the board
+     * @return          the depth of the shallow search or 0 if the board is not cut off by ProbCut
+     */
+    int getShallowDepth(int _depth)
+    {
+        if(_depth > deepestDepth) return deepestDepth > 0 ? _depth - deepestDepth + shallowDepths[deepestDepth] : 0;
+        return _depth > 0 ? shallowDepths[_depth] : 0;
+    }
+
+    /**
+     * Get the lowest score of the shallow search which cuts off the board at beta.
+     * @param _depth        the depth left to search from the board
+     * @param _beta         the beta value in the perspective of the player to move
+     * @return              the score of the shallow search in the perspective of the player to move
+     */
+    int getHighCut(int _depth, double _beta)
+    {
+        int depth = Math.min(_depth, deepestDepth);
+        return (int)Math.ceil((_beta - intercepts[depth] + threshold * sigmas[depth]) / slopes[depth]);
+    }
+
+    /**
+     * Get the highest score of the shallow search which cuts off the board at alpha.
+     * @param _depth        the depth left to search from the board
+     * @param _alpha        the alpha value in the perspective of the player to move
+     * @return              the score of the shallow search in the perspective of the player to move
+     */
+    int getLowCut(int _depth, double _alpha)
+    {
+        int depth = Math.min(_depth, deepestDepth);
+        return (int)Math.floor((_alpha - intercepts[depth] - threshold * sigmas[depth]) / slopes[depth]);
+    }
+
+    /**
+     * Saves the threshold and the regressions to the file.
+     * @param _path     path of the file
+     * @throws IOException  if the file can't be written
+     */
+    public void save(String _path) throws IOException
+    {
+        Properties properties = new Properties();
+        properties.setProperty("threshold", Double.toString(threshold));
+        for(double[] row : getParameters())
+        {
+            String depth = "depth." + (int)row[0] + ".";
+            properties.setProperty(depth + "shallow", Integer.toString((int)row[1]));
+            properties.setProperty(depth + "slope", Double.toString(row[2]));
+            properties.setProperty(depth + "intercept", Double.toString(row[3]));
+            properties.setProperty(depth + "sigma", Double.toString(row[4]));
+        }
+
+        try(OutputStream out = new FileOutputStream(_path))
+        {
+            properties.store(out, "ProbCut: deep = slope * shallow + intercept, cut off at threshold * sigma");
+        }
+    }
+
+    /**
+     * Loads the threshold and the regressions from the file saved by save(String).
+     * @param _path     path of the file
+     * @return          the loaded ProbCut
+     * @throws IOException  if the file can't be read
+     */
+    public static ProbCut load(String _path) throws IOException
+    {
+        Properties properties = new Properties();
+        try(InputStream in = new FileInputStream(_path))
+        {
+            properties.load(in);
+        }
+
+        int rows = 0;
+        double[][] parameters = new double[Board.BOARD_SIZE + 1][];
+        for(int depth = 1; depth <= Board.BOARD_SIZE; depth++)
+        {
+            String key = "depth." + depth + ".";
+            if(properties.getProperty(key + "shallow") == null) continue;
+
+            parameters[rows++] = new double[] { depth,
+                    Integer.parseInt(properties.getProperty(key + "shallow")),
+                    Double.parseDouble(properties.getProperty(key + "slope")),
+                    Double.parseDouble(properties.getProperty(key + "intercept")),
+                    Double.parseDouble(properties.getProperty(key + "sigma")) };
+        }
+
+        double threshold = Double.parseDouble(properties.getProperty("threshold", Double.toString(DEFAULT_THRESHOLD)));
+        return new ProbCut(threshold, Arrays.copyOf(parameters, rows));
+    }
+}
@@ -2,6 +2,8 @@ package AI;
 
 import Stratego.Board;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * Plays a random move in Stratego game.
  *
@@ -17,19 +19,19 @@ public class Random
     /**
      * Execute the Random algorithm.
      * @param _board     the Stratego game board to play on.
+     * @return           the random move (not played)
      */
-    static void run (Board _board)
+    static SearchResult run (Board _board)
     {
-        int[] moves = new int[_board.getAvailableMoves().size()];
-        int index = 0;
+        int movesCount = _board.getAvailableMovesCount();
+        if(movesCount == 0) return new SearchResult(TranspositionTable.NO_MOVE, 0, new int[0], 0, 0);
 
-        for(Integer item : _board.getAvailableMoves())
-        {
-            moves[index] = item;
-            index++;
-        }
+        //clear the lowest empty fields before the drawn one, it's the lowest one left
+        long empty = _board.getEmptyFields();
+        for(int skipped = ThreadLocalRandom.current().nextInt(movesCount); skipped > 0; skipped--)
+            empty &= empty - 1;
 
-        int randomMove = moves[new java.util.Random().nextInt(moves.length)];
-        _board.move(randomMove);
+        int randomMove = Long.numberOfTrailingZeros(empty);
+        return new SearchResult(randomMove, 0, new int[] { randomMove }, 1, 1);
     }
 }
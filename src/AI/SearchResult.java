@@ -0,0 +1,101 @@
+package AI;
+
+import Stratego.Board;
+
+import java.util.Arrays;
+
+/**
+ * Result of the search of the best move in Stratego game.
+ * The move is not played by the search, the caller plays it on its board.
+ */
+public class SearchResult
+{
+    private final int bestMove;                 //index of the field of the best move or NO_MOVE
+    private final int score;                    //score of the best move for the player who searched it
+    private final int[] principalVariation;     //expected moves of both players from the best move
+    private final long nodes;                   //number of searched nodes
+    private final int depth;                    //depth of the search
+
+    /**
+     * Construct a result of the search.
+     * @param _bestMove             index of the field of the best move or TranspositionTable.NO_MOVE
+     * @param _score                score of the best move for the player who searched it
+     * @param _principalVariation   expected moves of both players from the best move
+     * @param _nodes                number of searched nodes
+     * @param _depth                depth of the search
+     */
+    SearchResult(int _bestMove, int _score, int[] _principalVariation, long _nodes, int _depth)
+    {
+        this.bestMove = _bestMove;
+        this.score = _score;
+        this.principalVariation = _principalVariation;
+        this.nodes = _nodes;
+        this.depth = _depth;
+    }
+
+    /**
+     * Get the result of the board with the decided result of the game (see Board.isOutcomeDecided()):
+     * every move leads to the same points, so the lowest empty field is played without the search.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board with the decided result of the game
+     * @return              the result with the exact score of the end of the game
+     */
+    static SearchResult decided(Board.State _player, Board _board)
+    {
+        int move = Long.numberOfTrailingZeros(_board.getEmptyFields());
+        return new SearchResult(move, _board.getMinScore(_player), new int[] { move }, 1,
+                _board.getAvailableMovesCount());
+    }
+
+    /**
+     * Get the best move.
+     * @return      index of the field of the best move or -1 if no move was found
+     */
+    public int getBestMove()
+    {
+        return bestMove;
+    }
+
+    /**
+     * Get the score of the best move.
+     * @return      score of the best move for the player who searched it
+     */
+    public int getScore()
+    {
+        return score;
+    }
+
+    /**
+     * Get the principal variation: the best move and the expected answers of both players after it.
+     * @return      copy of the indexes of the fields of the moves
+     */
+    public int[] getPrincipalVariation()
+    {
+        return principalVariation.clone();
+    }
+
+    /**
+     * Get the number of nodes of the search.
+     * @return      number of searched nodes
+     */
+    public long getNodes()
+    {
+        return nodes;
+    }
+
+    /**
+     * Get the depth of the search.
+     * @return      depth of the search (of the last finished depth in the search with the time limit)
+     */
+    public int getDepth()
+    {
+        return depth;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "move " + bestMove + ", score " + score + ", depth " + depth + ", nodes " + nodes
+                + ", pv " + Arrays.toString(principalVariation);
+    }
+}
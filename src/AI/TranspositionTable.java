@@ -0,0 +1,277 @@
+package AI;
+
+import Stratego.Board;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size transposition table for the AlphaBeta Pruning engines.
+ * Remembers the results of searched positions by the hash key of the board.
+ *
+ * Every entry takes two longs: the key XOR the data and the data. Data packs the score, the depth,
+ * the type of the bound and the best move. An entry torn by two threads writing at the same time
+ * doesn't match its key anymore and is read as a miss, so the table can be shared between threads without locks.
+ *
+ * Entries are kept in buckets of two: the first entry keeps the deepest result of the current search,
+ * the second one always takes the newest result.
+ */
+public class TranspositionTable
+{
+    //Default size of the table in megabytes
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    //Types of the bound of the score
+    static final int EXACT = 1;         //score is exact
+    static final int LOWER_BOUND = 2;   //score is at least the stored score
+    static final int UPPER_BOUND = 3;   //score is at most the stored score
+
+    //No entry for the key
+    static final long MISS = 0L;
+    //No best move
+    static final int NO_MOVE = -1;
+    //The highest depth which can be stored
+    static final int MAX_DEPTH = 0xFF;
+
+    //Key of the searches for the Red player, scores in the table are in the perspective of the searching player
+    private static final long RED_PLAYER_KEY = 0x6A09E667F3BCC908L;
+
+    //Longs of every entry (key XOR data, data) and of every bucket (two entries)
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_LONGS = 2 * ENTRY_LONGS;
+
+    //Data of the entry: bits 0-15 - score, 16-23 - depth, 24-25 - bound, 26-32 - best move + 1, 33-40 - age
+    private static final int DEPTH_SHIFT = 16;
+    private static final int BOUND_SHIFT = 24;
+    private static final int MOVE_SHIFT = 26;
+    private static final int AGE_SHIFT = 33;
+
+    private final int sizeMB;                   //size of the table in megabytes
+    private final AtomicLongArray entries;      //all buckets one after another
+    private final int bucketsMask;              //number of buckets - 1 (power of two)
+    private volatile int age;                   //age of the current search, older entries are replaced first
+
+    /**
+     * Construct a transposition table.
+     * @param _sizeMB   size of the table in megabytes
+     */
+    public TranspositionTable(int _sizeMB)
+    {
+        if(_sizeMB < 1) throw new IllegalArgumentException("Size of the transposition table must be at least 1 MB.");
+
+        //the highest power of two of the buckets which fits in the size
+        long buckets = Long.highestOneBit(((long) _sizeMB << 20) / (BUCKET_LONGS * Long.BYTES));
+        buckets = Math.min(buckets, Integer.MAX_VALUE / BUCKET_LONGS + 1);
+
+        this.sizeMB = _sizeMB;
+        this.entries = new AtomicLongArray((int) buckets * BUCKET_LONGS);
+        this.bucketsMask = (int) buckets - 1;
+        this.age = 0;
+    }
+
+    /**
+     * Get the size of the table.
+     * @return      size of the table in megabytes
+     */
+    public int getSizeMB()
+    {
+        return sizeMB;
+    }
+
+    /**
+     * Starts a new search. Entries of the previous searches are replaced before the deeper ones.
+     */
+    public void newSearch()
+    {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * Removes all entries from the table.
+     */
+    public void clear()
+    {
+        for(int i = 0; i < entries.length(); i++)
+            entries.set(i, 0L);
+    }
+
+    /**
+     * Finds the entry of the specified key.
+     * @param _key      the hash key of the position
+     * @return          data of the entry or MISS if there is no entry for the key
+     */
+    long probe(long _key)
+    {
+        int bucket = bucket(_key);
+
+        for(int entry = bucket; entry < bucket + BUCKET_LONGS; entry += ENTRY_LONGS)
+        {
+            long data = entries.get(entry + 1);
+            if(data != MISS && (entries.get(entry) ^ data) == _key) return data;
+        }
+
+        return MISS;
+    }
+
+    /**
+     * Saves the result of the search of the position.
+     * @param _key      the hash key of the position
+     * @param _score    the score of the position
+     * @param _depth    the depth of the search of the position
+     * @param _bound    type of the bound of the score (EXACT, LOWER_BOUND or UPPER_BOUND)
+     * @param _move     the best move in the position or NO_MOVE
+     */
+    void store(long _key, int _score, int _depth, int _bound, int _move)
+    {
+        int currentAge = age;
+        long data = (_score & 0xFFFFL)
+                | (long) Math.min(_depth, MAX_DEPTH) << DEPTH_SHIFT
+                | (long) _bound << BOUND_SHIFT
+                | (long) (_move + 1) << MOVE_SHIFT
+                | (long) currentAge << AGE_SHIFT;
+
+        int bucket = bucket(_key);
+        int entry = bucket + ENTRY_LONGS;
+
+        //the deepest entry is replaced by the same position, by a deeper search or if it's from an older search
+        long deepest = entries.get(bucket + 1);
+        if(deepest == MISS
+                || (entries.get(bucket) ^ deepest) == _key
+                || getDepth(deepest) <= _depth
+                || getAge(deepest) != currentAge)
+            entry = bucket;
+
+        entries.set(entry, _key ^ data);
+        entries.set(entry + 1, data);
+    }
+
+    /**
+     * Get the key of the position searched by the specified player.
+     * @param _player   the player that the AI will identify as
+     * @param _board    the Stratego board
+     * @return          the key of the position in the table
+     */
+    static long key(Board.State _player, Board _board)
+    {
+        return _player == Board.State.Red ? _board.getHashKey() ^ RED_PLAYER_KEY : _board.getHashKey();
+    }
+
+    /**
+     * Get the principal variation: the specified best move and then the best moves from the table
+     * as long as they are found and can be played.
+     * @param _player       the player that the AI will identify as
+     * @param _board        the Stratego board the search was started on (it's the same after the call)
+     * @param _bestMove     the best move on the board
+     * @param _maxLength    the maximum number of moves
+     * @return              indexes of the fields of the moves
+     */
+    int[] principalVariation(Board.State _player, Board _board, int _bestMove, int _maxLength)
+    {
+        if(_bestMove == NO_MOVE || _maxLength < 1) return new int[0];
+
+        int[] moves = new int[_maxLength];
+        int length = 0;
+        int move = _bestMove;
+
+        while(true)
+        {
+            _board.makeMove(move);
+            moves[length++] = move;
+            if(length == _maxLength || _board.isGameOver()) break;
+
+            long entry = probe(key(_player, _board));
+            if(entry == MISS) break;
+
+            move = getMove(entry);
+            if(move == NO_MOVE || !_board.isAvailableMove(move)) break;
+        }
+
+        for(int i = 0; i < length; i++) _board.undoMove();
+        return Arrays.copyOf(moves, length);
+    }
+
+    /**
+     * Get the index of the first long of the bucket of the key.
+     * @param _key      the hash key of the position
+     * @return          the index of the bucket in the entries
+     */
+    private int bucket(long _key)
+    {
+        return ((int) (_key ^ (_key >>> 32)) & bucketsMask) * BUCKET_LONGS;
+    }
+
+    /**
+     * Get the score from the data of the entry.
+     * @param _data     data of the entry
+     * @return          the score
+     */
+    static int getScore(long _data)
+    {
+        return (short) _data;
+    }
+
+    /**
+     * Get the depth from the data of the entry.
+     * @param _data     data of the entry
+     * @return          the depth of the search
+     */
+    static int getDepth(long _data)
+    {
+        return (int) (_data >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    /**
+     * Get the type of the bound from the data of the entry.
+     * @param _data     data of the entry
+     * @return          EXACT, LOWER_BOUND or UPPER_BOUND
+     */
+    static int getBound(long _data)
+    {
+        return (int) (_data >>> BOUND_SHIFT) & 0x3;
+    }
+
+    /**
+     * Get the best move from the data of the entry.
+     * @param _data     data of the entry
+     * @return          the index of the field of the best move or NO_MOVE
+     */
+    static int getMove(long _data)
+    {
+        return (int) ((_data >>> MOVE_SHIFT) & 0x7F) - 1;
+    }
+
+    /**
+     * Get the age of the search from the data of the entry.
+     * @param _data     data of the entry
+     * @return          the age of the search
+     */
+    private static int getAge(long _data)
+    {
+        return (int) (_data >>> AGE_SHIFT) & 0xFF;
+    }
+
+    /**
+     * Moves the specified move in front of the other moves, the order of the others doesn't change.
+     * @param _moves        the moves
+     * @param _from         index of the first of the moves which may be moved
+     * @param _movesCount   number of the moves
+     * @param _move         the move to move or NO_MOVE
+     * @return              index of the first of the moves after the moved move (_from if it was not found)
+     */
+    static int moveToFront(int[] _moves, int _from, int _movesCount, int _move)
+    {
+        if(_move == NO_MOVE) return _from;
+
+        for(int i = _from; i < _movesCount; i++)
+        {
+            if(_moves[i] == _move)
+            {
+                System.arraycopy(_moves, _from, _moves, _from + 1, i - _from);
+                _moves[_from] = _move;
+                return _from + 1;
+            }
+        }
+
+        return _from;
+    }
+}
@@ -1,14 +1,24 @@
 package Stratego;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.SplittableRandom;
 
 /**
  * Represents the Stratego game board.
+ * Fields are kept as bitboards: bit (row * BOARD_WIDTH + column) of a mask stands for the field with that index.
  */
 public class Board
 {
     //Width of board. BOARD_WIDTH * BOARD_WIDTH fields.
     static final int BOARD_WIDTH = 7;
+    //Number of fields on the board.
+    public static final int BOARD_SIZE = BOARD_WIDTH * BOARD_WIDTH;
+    //Mask with the bits of all fields on the board set.
+    private static final long FULL_MASK = (1L << BOARD_SIZE) - 1;
 
     //Colors for console gui
     public static final String ANSI_RESET = "\u001B[0m";
@@ -21,14 +31,170 @@ public class Board
         Blank, Blue, Red
     }
 
-    private State[][] board;                    //Game board
+    //All states by ordinal (values() creates a new array on every call)
+    private static final State[] STATES = State.values();
+
+    //Lines which can give points: rows, columns and both directions of diagonals with at least 2 fields
+    static final int LINES_COUNT = 2 * BOARD_WIDTH + 2 * (2 * BOARD_WIDTH - 3);
+    private static final long[] LINE_MASKS = new long[LINES_COUNT];         //fields of the line
+    private static final int[] LINE_LENGTHS = new int[LINES_COUNT];         //number of fields in the line
+    private static final int[][] FIELD_LINES = new int[BOARD_SIZE][];       //lines going through the field
+
+    //State of a line: (length << 6) | (Blue fields << 3) | Red fields
+    private static final int LINE_LENGTH_SHIFT = 6;
+    private static final int LINE_BLUE_SHIFT = 3;
+    private static final int LINE_FIELDS_MASK = (1 << LINE_BLUE_SHIFT) - 1;
+
+    //Points of the line in every state, packed by bytes:
+    //Blue points, Red points, Blue started lines points, Red started lines points
+    private static final int[] LINE_POINTS = new int[(BOARD_WIDTH + 1) << LINE_LENGTH_SHIFT];
+    //The most points the line in every state can still give at the end of the game, packed as LINE_POINTS:
+    //Blue points, Red points (the line is filled by the player if the opponent has no field in it)
+    private static final int[] LINE_MAX_POINTS = new int[(BOARD_WIDTH + 1) << LINE_LENGTH_SHIFT];
+    private static final int BLUE_POINTS_SHIFT = 0;
+    private static final int RED_POINTS_SHIFT = 8;
+    private static final int BLUE_STARTED_POINTS_SHIFT = 16;
+    private static final int RED_STARTED_POINTS_SHIFT = 24;
+
+    //Zobrist keys of the fields coloured by Blue and Red and of the Red's turn, for the hash key of the board
+    private static final long[] BLUE_FIELD_KEYS = new long[BOARD_SIZE];
+    private static final long[] RED_FIELD_KEYS = new long[BOARD_SIZE];
+    private static final long RED_TURN_KEY;
+
+    //Symmetries of the board: the identity, rotations by 90, 180 and 270 degrees clockwise
+    //and reflections in the vertical axis, the horizontal axis, the main diagonal and the anti-diagonal
+    public static final int SYMMETRIES = 8;
+    public static final int IDENTITY = 0;
+    private static final int[] INVERSE_SYMMETRIES = { 0, 3, 2, 1, 4, 5, 6, 7 };
+    //Field which every field is moved to by every symmetry, lines are moved to lines, so the points don't change
+    private static final int[][] SYMMETRIC_FIELDS = new int[SYMMETRIES][BOARD_SIZE];
+    //Zobrist keys of the fields moved by every symmetry, for the hash keys of the symmetric boards
+    private static final long[][] SYMMETRIC_BLUE_FIELD_KEYS = new long[SYMMETRIES][BOARD_SIZE];
+    private static final long[][] SYMMETRIC_RED_FIELD_KEYS = new long[SYMMETRIES][BOARD_SIZE];
+
+    static
+    {
+        int diagonalsFromLeft = 2 * BOARD_WIDTH;                            //bottom-left to top-right
+        int diagonalsFromRight = diagonalsFromLeft + 2 * BOARD_WIDTH - 3;   //top-left to bottom-right
+
+        for(int row = 0; row < BOARD_WIDTH; row++)
+        {
+            for(int col = 0; col < BOARD_WIDTH; col++)
+            {
+                int index = row * BOARD_WIDTH + col;
+                int[] lines = new int[4];
+                int linesCount = 0;
+
+                lines[linesCount++] = row;
+                lines[linesCount++] = BOARD_WIDTH + col;
+
+                //diagonals of a single field (corners) are skipped
+                int fromLeft = row + col - 1;
+                if(fromLeft >= 0 && fromLeft < 2 * BOARD_WIDTH - 3)
+                    lines[linesCount++] = diagonalsFromLeft + fromLeft;
+
+                int fromRight = row - col + BOARD_WIDTH - 2;
+                if(fromRight >= 0 && fromRight < 2 * BOARD_WIDTH - 3)
+                    lines[linesCount++] = diagonalsFromRight + fromRight;
+
+                FIELD_LINES[index] = Arrays.copyOf(lines, linesCount);
+                for(int line : FIELD_LINES[index])
+                {
+                    LINE_MASKS[line] |= 1L << index;
+                    LINE_LENGTHS[line]++;
+                }
+            }
+        }
+
+        //points of every possible state of the line
+        for(int length = 2; length <= BOARD_WIDTH; length++)
+        {
+            for(int blue = 0; blue <= length; blue++)
+            {
+                for(int red = 0; blue + red <= length; red++)
+                {
+                    int points = 0;
+
+                    //filled line gives as many points as it has fields
+                    if(blue == length) points |= length << BLUE_POINTS_SHIFT;
+                    else if(red == length) points |= length << RED_POINTS_SHIFT;
+
+                    //started line gives a point for every field if the opponent has no field in it
+                    if(red == 0) points |= blue << BLUE_STARTED_POINTS_SHIFT;
+                    else if(blue == 0) points |= red << RED_STARTED_POINTS_SHIFT;
+
+                    LINE_POINTS[lineState(length, blue, red)] = points;
+
+                    //line without the fields of the opponent can still be filled by the player
+                    int maxPoints = 0;
+                    if(red == 0) maxPoints |= length << BLUE_POINTS_SHIFT;
+                    if(blue == 0) maxPoints |= length << RED_POINTS_SHIFT;
+
+                    LINE_MAX_POINTS[lineState(length, blue, red)] = maxPoints;
+                }
+            }
+        }
+
+        //same keys on every run, so the hash keys can be saved
+        SplittableRandom random = new SplittableRandom(0x5742A7E60L);
+        for(int index = 0; index < BOARD_SIZE; index++)
+        {
+            BLUE_FIELD_KEYS[index] = random.nextLong();
+            RED_FIELD_KEYS[index] = random.nextLong();
+        }
+        RED_TURN_KEY = random.nextLong();
+
+        //fields and keys moved by every symmetry
+        int last = BOARD_WIDTH - 1;
+        for(int row = 0; row < BOARD_WIDTH; row++)
+        {
+            for(int col = 0; col < BOARD_WIDTH; col++)
+            {
+                int[] symmetric = {
+                        row * BOARD_WIDTH + col,
+                        col * BOARD_WIDTH + last - row,
+                        (last - row) * BOARD_WIDTH + last - col,
+                        (last - col) * BOARD_WIDTH + row,
+                        row * BOARD_WIDTH + last - col,
+                        (last - row) * BOARD_WIDTH + col,
+                        col * BOARD_WIDTH + row,
+                        (last - col) * BOARD_WIDTH + last - row };
+
+                int index = row * BOARD_WIDTH + col;
+                for(int symmetry = 0; symmetry < SYMMETRIES; symmetry++)
+                {
+                    SYMMETRIC_FIELDS[symmetry][index] = symmetric[symmetry];
+                    SYMMETRIC_BLUE_FIELD_KEYS[symmetry][index] = BLUE_FIELD_KEYS[symmetric[symmetry]];
+                    SYMMETRIC_RED_FIELD_KEYS[symmetry][index] = RED_FIELD_KEYS[symmetric[symmetry]];
+                }
+            }
+        }
+    }
+
+    private long blueFields;                    //Fields coloured by Blue player
+    private long redFields;                     //Fields coloured by Red player
     private State playersTurn;                  //which player should make a turn
     private State winner;                       //Winner of the game
-    private HashSet<Integer> availableMoves;    //Available moves on this state of board
-                                                //Integer is a id of the field (0 - BOARD_WIDTH*BOARD_WIDTH)
 
     private int moveCount;                      //number of moves
     private boolean gameOver;                   //if game is over
+    private long hashKey;                       //Zobrist hash key of the fields and the turn
+    private final long[] symmetricHashKeys = new long[SYMMETRIES];  //hash keys of the board moved by every symmetry
+
+    //History of played moves to undo them, one entry per move:
+    //bits 0-5 - index of the field, bits 6-7 - winner before the move, bit 8 - game over before the move
+    private final int[] history = new int[BOARD_SIZE];
+
+    //State of every line (see lineState()) and sum of their points packed as in LINE_POINTS,
+    //updated on every move
+    private final int[] lineStates = new int[LINES_COUNT];
+    private int linesPoints;
+    private int linesMaxPoints;                 //sum of the most points of the lines packed as in LINE_MAX_POINTS
+
+    //Number of live lines (without fields of both players) going through every field and the mask of the fields
+    //without live lines, updated on every move. Colour of such field changes no points of any line anymore.
+    private final int[] liveLines = new int[BOARD_SIZE];
+    private long deadFields;
 
     //---------------
     // CONSTRUCTORS |--------------------------------------------------
@@ -39,8 +205,6 @@ public class Board
      */
     Board()
     {
-        board = new State[BOARD_WIDTH][BOARD_WIDTH];
-        availableMoves = new HashSet<>();
         restart();
     }
 
@@ -54,27 +218,34 @@ public class Board
         gameOver = false;
         playersTurn = State.Blue;
         winner = State.Blank;
-        //initialize a board fields and available moves
+        hashKey = 0L;
+        Arrays.fill(symmetricHashKeys, 0L);
+        //initialize a board fields
         initialize();
     }
 
     /**
-     * Sets the all game fields as Blank and loads the available moves
+     * Sets the all game fields as Blank
      * (all moves are available at the start of the game).
      */
     private void initialize()
     {
-        //Set all game fields on the board as Blank
-        for(int row = 0; row < BOARD_WIDTH; row++)
-            for(int col = 0; col < BOARD_WIDTH; col++)
-                board[row][col] = State.Blank;
+        blueFields = 0L;
+        redFields = 0L;
 
-        //Clear available moves
-        availableMoves.clear();
+        //there are no coloured fields in any line
+        linesMaxPoints = 0;
+        for(int line = 0; line < LINES_COUNT; line++)
+        {
+            lineStates[line] = lineState(LINE_LENGTHS[line], 0, 0);
+            linesMaxPoints += LINE_MAX_POINTS[lineStates[line]];
+        }
+        linesPoints = 0;
 
-        //add all moves to available moves at the start of the game
-        for(int i = 0; i < BOARD_WIDTH*BOARD_WIDTH; i++)
-            availableMoves.add(i);
+        //all lines are live
+        for(int index = 0; index < BOARD_SIZE; index++)
+            liveLines[index] = FIELD_LINES[index].length;
+        deadFields = 0L;
     }
 
     //----------
@@ -83,52 +254,196 @@ public class Board
 
     /**
      * Colours a specified field with the color Blue or Red depends on whose turn it is
-     * @param _x     the x coordinate of the field
-     * @param _y     the y coordinate of the field
-     * @return      true if the has not already been played
+     * @param _index     index of the field on the board (row: index*BOARD_WIDTH, col: index%BOARD_WIDTH)
+     * @return          true if the has not already been played
+     */
+    public boolean move(int _index)
+    {
+        //No move can be played if the game is over
+        if(gameOver)
+            throw new IllegalStateException("Statego game is over. No moves can be player.");
+
+        if(_index < 0 || _index >= BOARD_SIZE)
+            throw new IllegalArgumentException("Index of the field must be between 0 and " + (BOARD_SIZE - 1) + ".");
+
+        //The field has been already played
+        if(((blueFields | redFields) & (1L << _index)) != 0) return false;
+
+        makeMove(_index);
+        return true;
+    }
+
+    /**
+     * Colours a specified empty field with the color of the player whose turn it is.
+     * The move is saved in the history, so it can be taken back by the undoMove().
+     * @param _index     index of the empty field on the board
      */
-    private boolean move(int _x, int _y)
+    public void makeMove(int _index)
     {
         //No move can be played if the game is over
         if(gameOver)
             throw new IllegalStateException("Statego game is over. No moves can be player.");
 
-        //Set the color of playersTurn if the field is Blank
-        if(board[_x][_y] == State.Blank) board[_x][_y] = playersTurn;
-        else return false;
+        long field = 1L << _index;
+        if(((blueFields | redFields) & field) != 0)
+            throw new IllegalArgumentException("Field " + _index + " has been already played.");
 
+        //save the move and the state it changes
+        history[moveCount] = _index | winner.ordinal() << 6 | (gameOver ? 1 : 0) << 8;
+
+        //Set the color of playersTurn
+        if(playersTurn == State.Blue)
+        {
+            blueFields |= field;
+            hashKey ^= BLUE_FIELD_KEYS[_index];
+            updateSymmetricHashKeys(SYMMETRIC_BLUE_FIELD_KEYS, _index);
+            updateLines(_index, 1 << LINE_BLUE_SHIFT);
+        }
+        else
+        {
+            redFields |= field;
+            hashKey ^= RED_FIELD_KEYS[_index];
+            updateSymmetricHashKeys(SYMMETRIC_RED_FIELD_KEYS, _index);
+            updateLines(_index, 1);
+        }
 
         moveCount++;
-        //remove the position (row * BOARD_WIDTH + column)
-        availableMoves.remove(_x * BOARD_WIDTH + _y);
 
         //if moveCount is equal to fields count the game is over
         //Default is an draw (winner is a Blank)
-        if(moveCount == BOARD_WIDTH * BOARD_WIDTH)
+        if(moveCount == BOARD_SIZE)
         {
             winner = State.Blank;
             gameOver = true;
 
             //count points and select winner
-//            int points = countPoints();
             countPoints();
         }
 
-        //Check for a winner
+        playersTurn = (playersTurn == State.Blue) ? State.Red : State.Blue;
+        hashKey ^= RED_TURN_KEY;
+    }
+
+    /**
+     * Takes back the last move played on the board.
+     * Restores the turn, the number of moves, the game over flag and the winner from before this move.
+     */
+    public void undoMove()
+    {
+        if(moveCount == 0)
+            throw new IllegalStateException("There is no move to undo.");
+
+        int lastMove = history[--moveCount];
+        int index = lastMove & 0x3F;
+        long field = 1L << index;
 
         playersTurn = (playersTurn == State.Blue) ? State.Red : State.Blue;
+        hashKey ^= RED_TURN_KEY;
 
-        return true;
+        //clear the field of the player who played it
+        if(playersTurn == State.Blue)
+        {
+            blueFields &= ~field;
+            hashKey ^= BLUE_FIELD_KEYS[index];
+            updateSymmetricHashKeys(SYMMETRIC_BLUE_FIELD_KEYS, index);
+            updateLines(index, -(1 << LINE_BLUE_SHIFT));
+        }
+        else
+        {
+            redFields &= ~field;
+            hashKey ^= RED_FIELD_KEYS[index];
+            updateSymmetricHashKeys(SYMMETRIC_RED_FIELD_KEYS, index);
+            updateLines(index, -1);
+        }
+
+        winner = STATES[(lastMove >>> 6) & 0x3];
+        gameOver = ((lastMove >>> 8) & 1) != 0;
     }
 
     /**
-     * Colours a specified field with the color Blue or Red depends on whose turn it is
-     * @param _index     index of the field on the board (row: index*BOARD_WIDTH, col: index%BOARD_WIDTH)
-     * @return          true if the has not already been played
+     * Adds or takes away the colour of the specified field from the hash keys of the symmetric boards.
+     * @param _keys      keys of the fields of the colour moved by every symmetry
+     * @param _index     index of the field which has been changed
      */
-    public boolean move(int _index)
+    private void updateSymmetricHashKeys(long[][] _keys, int _index)
+    {
+        for(int symmetry = 0; symmetry < SYMMETRIES; symmetry++)
+            symmetricHashKeys[symmetry] ^= _keys[symmetry][_index];
+    }
+
+    /**
+     * Updates the states of the lines going through the specified field and the points of the players.
+     * Line is empty, started by one player (fields of one player only) or dead (fields of both players),
+     * so the points of both evaluation functions depend only on its state.
+     * @param _index     index of the field which has been changed
+     * @param _change    change of the line state (one Blue or Red field added or taken away)
+     */
+    private void updateLines(int _index, int _change)
+    {
+        for(int line : FIELD_LINES[_index])
+        {
+            int state = lineStates[line];
+            lineStates[line] = state + _change;
+
+            //the sum of packed points stays exact, because every packed total is between 0 and 255
+            linesPoints += LINE_POINTS[state + _change] - LINE_POINTS[state];
+            linesMaxPoints += LINE_MAX_POINTS[state + _change] - LINE_MAX_POINTS[state];
+
+            //line dies with the first field of the second player and comes back to life when it's taken back
+            if(isDead(state) != isDead(state + _change))
+                updateLiveLines(line, isDead(state) ? 1 : -1);
+        }
+    }
+
+    /**
+     * Changes the number of live lines of all fields of the specified line.
+     * @param _line      the line which died or came back to life
+     * @param _change    1 if the line came back to life, -1 if it died
+     */
+    private void updateLiveLines(int _line, int _change)
+    {
+        for(long fields = LINE_MASKS[_line]; fields != 0; fields &= fields - 1)
+        {
+            int index = Long.numberOfTrailingZeros(fields);
+            liveLines[index] += _change;
+
+            if(liveLines[index] == 0) deadFields |= 1L << index;
+            else deadFields &= ~(1L << index);
+        }
+    }
+
+    /**
+     * Checks if the line in the specified state is dead (has fields of both players),
+     * so it gives no points in any evaluation function.
+     * @param _lineState    the state of the line
+     * @return              true if the line is dead
+     */
+    private static boolean isDead(int _lineState)
+    {
+        return ((_lineState >>> LINE_BLUE_SHIFT) & LINE_FIELDS_MASK) != 0 && (_lineState & LINE_FIELDS_MASK) != 0;
+    }
+
+    /**
+     * Get the state of the line with the specified number of fields.
+     * @param _length    number of fields in the line
+     * @param _blue      number of Blue fields in the line
+     * @param _red       number of Red fields in the line
+     * @return           the state of the line, index in LINE_POINTS
+     */
+    private static int lineState(int _length, int _blue, int _red)
     {
-        return move(_index / BOARD_WIDTH, _index % BOARD_WIDTH);
+        return _length << LINE_LENGTH_SHIFT | _blue << LINE_BLUE_SHIFT | _red;
+    }
+
+    /**
+     * Get the points from the packed points.
+     * @param _points    points packed as in LINE_POINTS
+     * @param _shift     shift of the points to get
+     * @return           the points
+     */
+    private static int unpackPoints(int _points, int _shift)
+    {
+        return (_points >>> _shift) & 0xFF;
     }
 
     //---------------------------------------------------------------------------------------------------------------
@@ -142,34 +457,13 @@ public class Board
      */
     public int countPoints()
     {
-        int bluePoints = 0;
-        int redPoints = 0;
-
-        //check rows
-        int[] rowPoints = countRows();
-        bluePoints += rowPoints[0];
-        redPoints += rowPoints[1];
-
-        //check columns
-        int[] colPoints = countColumns();
-        bluePoints += colPoints[0];
-        redPoints += colPoints[1];
-
-        //check countDiagonalsFromLeft
-        int[] diagFromLeftPoints = countDiagonalsFromLeft();
-        bluePoints += diagFromLeftPoints[0];
-        redPoints += diagFromLeftPoints[1];
-
-        //check diagonalsFromRight
-        int[] diagFromRightPoints = countDiagonalsFromRight();
-        bluePoints += diagFromRightPoints[0];
-        redPoints += diagFromRightPoints[1];
+        int bluePoints = unpackPoints(linesPoints, BLUE_POINTS_SHIFT);
+        int redPoints = unpackPoints(linesPoints, RED_POINTS_SHIFT);
 
         //set the winner
         if(bluePoints == redPoints) winner = State.Blank;
         else winner = bluePoints > redPoints ? State.Blue : State.Red;
         //return winners points
-//        return bluePoints > redPoints ? bluePoints : redPoints;
         return bluePoints - redPoints;
     }
 
@@ -179,259 +473,197 @@ public class Board
      */
     public int[] countPointsArray()
     {
-        int[] returnPointsArray = new int[2];
-        int bluePoints = 0;
-        int redPoints = 0;
-
-        //check rows
-        int[] rowPoints = countRows();
-        bluePoints += rowPoints[0];
-        redPoints += rowPoints[1];
-
-        //check columns
-        int[] colPoints = countColumns();
-        bluePoints += colPoints[0];
-        redPoints += colPoints[1];
-
-        //check countDiagonalsFromLeft
-        int[] diagFromLeftPoints = countDiagonalsFromLeft();
-        bluePoints += diagFromLeftPoints[0];
-        redPoints += diagFromLeftPoints[1];
-
-        //check diagonalsFromRight
-        int[] diagFromRightPoints = countDiagonalsFromRight();
-        bluePoints += diagFromRightPoints[0];
-        redPoints += diagFromRightPoints[1];
-
-        returnPointsArray[0] = bluePoints;
-        returnPointsArray[1] = redPoints;
-        return returnPointsArray;
+        return new int[] {unpackPoints(linesPoints, BLUE_POINTS_SHIFT), unpackPoints(linesPoints, RED_POINTS_SHIFT)};
     }
 
     /**
-     * Counts a points of finished game in rows
-     * @return      points of both players in rows as array [Blue, Red]
+     * Counts a points of finished game by checking every field of every line on the board.
+     * Line gives as many points as it has fields if all of them have the same color.
+     * Slow reference for the points kept up to date by the moves, it doesn't use the masks of the lines.
+     * @return      points of both players as array [Blue, Red]
      */
-    private int[] countRows()
+    int[] countPointsArrayByScan()
     {
         int[] returnPointsArray = new int[2];
-        int bluePoints = 0;
-        int redPoints = 0;
 
-        for(int row = 0; row < BOARD_WIDTH; row++)
+        for(State[] line : scanLines())
         {
-            //set a actual color as the first color in this row
-            State actualColor = board[row][0];
+            //set a actual color as the first color in this line
+            State actualColor = line[0];
             int points = 0;
 
-            for(int col = 0; col < BOARD_WIDTH; col++)
+            for(State field : line)
             {
                 //count points if the color doesn't change
-                if(board[row][col] == actualColor) points++;
+                if(field == actualColor) points++;
                 else
                 {
                     points = 0;
                     break;
                 }
             }
-            if(points > 1)
-            {
-                if(actualColor == State.Blue) bluePoints += points;
-                else if (actualColor == State.Red) redPoints += points;
-            }
+
+            if(actualColor == State.Blue) returnPointsArray[0] += points;
+            else if(actualColor == State.Red) returnPointsArray[1] += points;
         }
 
-        returnPointsArray[0] = bluePoints;
-        returnPointsArray[1] = redPoints;
         return returnPointsArray;
     }
 
     /**
-     * Counts a points of finished game in columns
-     * @return      points of both players in columns as array [Blue, Red]
+     * Get the colors of the fields of every line with at least two fields, read field by field
+     * from the edge of the board: rows, columns, diagonals up to the right and diagonals down to the right.
+     * The lines are walked the way the points were counted before the masks of the lines,
+     * so the references of the points don't depend on the masks.
+     * @return      colors of the fields of every line
      */
-    private int[] countColumns()
+    private List<State[]> scanLines()
     {
-        int[] returnPointsArray = new int[2];
-        int bluePoints = 0;
-        int redPoints = 0;
+        List<State[]> lines = new ArrayList<>();
 
-        for(int col = 0; col < BOARD_WIDTH; col++)
+        for(int i = 0; i < BOARD_WIDTH; i++)
         {
-            //set a actual color as the first color in this column
-            State actualColor = board[0][col];
-            int points = 0;
-
-            for(int row = 0; row < BOARD_WIDTH; row++)
-            {
-                //count points if the color doesn't change
-                if(board[row][col] == actualColor) points++;
-                else
-                {
-                    points = 0;
-                    break;
-                }
-            }
-            if(points > 1)
-            {
-                if(actualColor == State.Blue) bluePoints += points;
-                else if (actualColor == State.Red) redPoints += points;
-            }
+            scanLine(lines, i, 0, 0, 1);                        //row
+            scanLine(lines, 0, i, 1, 0);                        //column
+            scanLine(lines, i, 0, -1, 1);                       //diagonal from left up
+            scanLine(lines, i, 0, 1, 1);                        //diagonal from left down
+            if(i == 0) continue;
+            scanLine(lines, BOARD_WIDTH - 1, i, -1, 1);         //diagonal from bottom up
+            scanLine(lines, 0, i, 1, 1);                        //diagonal from top down
         }
 
-        returnPointsArray[0] = bluePoints;
-        returnPointsArray[1] = redPoints;
-        return returnPointsArray;
+        return lines;
     }
 
     /**
-     * Counts a points of finished game in diagonals from left
-     * @return      Points of both players as array [Blue, Red]
+     * Adds the colors of the fields of the line from the specified field in the specified direction
+     * to the edge of the board, if the line has at least two fields.
+     * @param _lines        the lines
+     * @param _row          row of the first field
+     * @param _col          column of the first field
+     * @param _rowStep      change of the row to the next field
+     * @param _colStep      change of the column to the next field
      */
-    private int[] countDiagonalsFromLeft()
+    private void scanLine(List<State[]> _lines, int _row, int _col, int _rowStep, int _colStep)
     {
-        int[] returnPointsArray = new int[2];
-        int bluePoints = 0;
-        int redPoints = 0;
-
-        //count from left
-        for(int row = 0; row < BOARD_WIDTH; row++)
-        {
-            //set a actual color as the first color in this row
-            State actualColor = board[row][0];
-            int points = 0;
+        List<State> line = new ArrayList<>();
+        for(int row = _row, col = _col; row >= 0 && row < BOARD_WIDTH && col < BOARD_WIDTH;
+            row += _rowStep, col += _colStep)
+            line.add(getField(row * BOARD_WIDTH + col));
 
-            int backingUpRow = row;
-            int col = 0;
+        if(line.size() > 1) _lines.add(line.toArray(new State[0]));
+    }
 
-            while(backingUpRow >= 0)
-            {
-                //count points if the color doesn't change
-                if(board[backingUpRow][col] == actualColor) points++;
-                else
-                {
-                    points = 0;
-                    break;
-                }
-                //back up the row and move forward the col
-                backingUpRow--;
-                col++;
-            }
-            if(points > 1)
-            {
-                if(actualColor == State.Blue) bluePoints += points;
-                else if (actualColor == State.Red) redPoints += points;
-            }
-        }
+    /**
+     * Counts the points of the filled lines of the specified fields by checking every line.
+     * Nothing is kept up to date, so the fields can be filled in without the moves (e.g. in the playouts).
+     * @param _blueFields   bitboard of the fields coloured by Blue
+     * @param _redFields    bitboard of the fields coloured by Red
+     * @return              Blue points minus Red points
+     */
+    public static int countPoints(long _blueFields, long _redFields)
+    {
+        int points = 0;
 
-        //count from bottom
-        for(int col = 1; col < BOARD_WIDTH; col++)
+        for(int line = 0; line < LINES_COUNT; line++)
         {
-            //set a actual color as the first color in this column
-            State actualColor = board[BOARD_WIDTH - 1][col];
-            int points = 0;
+            long mask = LINE_MASKS[line];
+            if((_blueFields & mask) == mask) points += LINE_LENGTHS[line];
+            else if((_redFields & mask) == mask) points -= LINE_LENGTHS[line];
+        }
 
-            int growingUpCol = col;
-            int row = BOARD_WIDTH - 1;
+        return points;
+    }
 
-            while(growingUpCol < BOARD_WIDTH)
-            {
-                //count points if the color doesn't change
-                if(board[row][growingUpCol] == actualColor) points++;
-                else
-                {
-                    points = 0;
-                    break;
-                }
-                //grow up the column and back up the col
-                growingUpCol++;
-                row--;
-            }
-            if(points > 1)
-            {
-                if(actualColor == State.Blue) bluePoints += points;
-                else if (actualColor == State.Red) redPoints += points;
-            }
-        }
+    /**
+     * Get the fewest points the specified player will have at the end of the game: points of its filled lines.
+     * @param _player   Blue or Red
+     * @return          the fewest points of the player
+     */
+    public int getMinPoints(State _player)
+    {
+        if(_player == State.Blank) throw new IllegalArgumentException("Player must be Blue or Red");
 
-        returnPointsArray[0] = bluePoints;
-        returnPointsArray[1] = redPoints;
-        return returnPointsArray;
+        return unpackPoints(linesPoints, _player == State.Blue ? BLUE_POINTS_SHIFT : RED_POINTS_SHIFT);
     }
 
     /**
-     * Counts a points of finished game in diagonal from right
-     * @return      Points of both players as array [Blue, Red]
+     * Get the most points the specified player can have at the end of the game:
+     * points of all lines without the fields of the opponent.
+     * @param _player   Blue or Red
+     * @return          the most points of the player
      */
-    private int[] countDiagonalsFromRight()
+    public int getMaxPoints(State _player)
     {
-        int[] returnPointsArray = new int[2];
-        int bluePoints = 0;
-        int redPoints = 0;
+        if(_player == State.Blank) throw new IllegalArgumentException("Player must be Blue or Red");
 
-        //count from left
-        for(int row = 0; row < BOARD_WIDTH; row++)
-        {
-            //set a actual color as the first color in this row
-            State actualColor = board[row][0];
-            int points = 0;
+        return unpackPoints(linesMaxPoints, _player == State.Blue ? BLUE_POINTS_SHIFT : RED_POINTS_SHIFT);
+    }
 
-            int growingUpRow = row;
-            int col = 0;
+    /**
+     * Get the highest difference between the points of the specified player and the opponent
+     * at the end of the game.
+     * @param _player   Blue or Red
+     * @return          the most points of the player minus the fewest points of the opponent
+     */
+    public int getMaxScore(State _player)
+    {
+        State opponent = _player == State.Blue ? State.Red : State.Blue;
+        return getMaxPoints(_player) - getMinPoints(opponent);
+    }
 
-            while(growingUpRow < BOARD_WIDTH)
-            {
-                //count points if the color doesn't change
-                if(board[growingUpRow][col] == actualColor) points++;
-                else
-                {
-                    points = 0;
-                    break;
-                }
-                //grow up the row and column
-                growingUpRow++;
-                col++;
-            }
-            if(points > 1)
-            {
-                if(actualColor == State.Blue) bluePoints += points;
-                else if (actualColor == State.Red) redPoints += points;
-            }
-        }
+    /**
+     * Get the lowest difference between the points of the specified player and the opponent
+     * at the end of the game.
+     * @param _player   Blue or Red
+     * @return          the fewest points of the player minus the most points of the opponent
+     */
+    public int getMinScore(State _player)
+    {
+        State opponent = _player == State.Blue ? State.Red : State.Blue;
+        return getMinPoints(_player) - getMaxPoints(opponent);
+    }
 
-        //count from top
-        for(int col = 1; col < BOARD_WIDTH; col++)
-        {
-            //set a actual color as the first color in this column
-            State actualColor = board[0][col];
-            int points = 0;
+    /**
+     * Checks if the points at the end of the game are already known (no line can be filled anymore),
+     * so every move leads to the same result of the game.
+     * @return      true if the result of the game is decided
+     */
+    public boolean isOutcomeDecided()
+    {
+        return getMinPoints(State.Blue) == getMaxPoints(State.Blue) && getMinPoints(State.Red) == getMaxPoints(State.Red);
+    }
 
-            int growingUpCol = col;
-            int row = 0;
+    /**
+     * Get the bounds of the points kept up to date by the moves.
+     * @return      bounds as array [Blue fewest, Blue most, Red fewest, Red most]
+     */
+    int[] countPointsBoundsArray()
+    {
+        return new int[] {
+                getMinPoints(State.Blue), getMaxPoints(State.Blue), getMinPoints(State.Red), getMaxPoints(State.Red)
+        };
+    }
 
-            while(growingUpCol < BOARD_WIDTH)
-            {
-                //count points if the color doesn't change
-                if(board[row][growingUpCol] == actualColor) points++;
-                else
-                {
-                    points = 0;
-                    break;
-                }
-                //grow up the column and row
-                growingUpCol++;
-                row++;
-            }
-            if(points > 1)
-            {
-                if(actualColor == State.Blue) bluePoints += points;
-                else if (actualColor == State.Red) redPoints += points;
-            }
+    /**
+     * Counts the bounds of the points by checking every field of every line.
+     * Slow reference for the bounds kept up to date by the moves, it doesn't use the masks of the lines.
+     * @return      bounds as array [Blue fewest, Blue most, Red fewest, Red most]
+     */
+    int[] countPointsBoundsArrayByScan()
+    {
+        int[] bounds = new int[4];
+
+        for(State[] line : scanLines())
+        {
+            List<State> fields = Arrays.asList(line);
+            if(!fields.contains(State.Red) && !fields.contains(State.Blank)) bounds[0] += line.length;
+            if(!fields.contains(State.Red)) bounds[1] += line.length;
+            if(!fields.contains(State.Blue) && !fields.contains(State.Blank)) bounds[2] += line.length;
+            if(!fields.contains(State.Blue)) bounds[3] += line.length;
         }
 
-        returnPointsArray[0] = bluePoints;
-        returnPointsArray[1] = redPoints;
-        return returnPointsArray;
+        return bounds;
     }
 
     //---------------------------------------------------------------------------------------------------------------
@@ -444,61 +676,39 @@ public class Board
      */
     public int countPointsIncludesStartedLines()
     {
-        int bluePoints = 0;
-        int redPoints = 0;
-
-        //check rows
-        int[] rowPoints = countRowsIncludesStartedLines();
-        bluePoints += rowPoints[0];
-        redPoints += rowPoints[1];
-
-        //check columns
-        int[] colPoints = countColumnsIncludesStartedLines();
-        bluePoints += colPoints[0];
-        redPoints += colPoints[1];
-
-        //check countDiagonalsFromLeft
-        int[] diagFromLeftPoints = countDiagonalsFromLeftIncludesStartedLines();
-        bluePoints += diagFromLeftPoints[0];
-        redPoints += diagFromLeftPoints[1];
-
-        //check diagonalsFromRight
-        int[] diagFromRightPoints = countDiagonalsFromRightIncludesStartedLines();
-        bluePoints += diagFromRightPoints[0];
-        redPoints += diagFromRightPoints[1];
+        int blueStartedPoints = unpackPoints(linesPoints, BLUE_STARTED_POINTS_SHIFT);
+        int redStartedPoints = unpackPoints(linesPoints, RED_STARTED_POINTS_SHIFT);
 
         //set the winner
-        if(bluePoints == redPoints) winner = State.Blank;
-        else winner = bluePoints > redPoints ? State.Blue : State.Red;
+        if(blueStartedPoints == redStartedPoints) winner = State.Blank;
+        else winner = blueStartedPoints > redStartedPoints ? State.Blue : State.Red;
         //return winners points
-//        return bluePoints > redPoints ? bluePoints : redPoints;
-        return bluePoints - redPoints;
+        return blueStartedPoints - redStartedPoints;
     }
 
     /**
-     * Counts a points of unfinished game in rows.
-     * @return      points of both players in rows as array [Blue, Red]
+     * Counts a points of unfinished game by checking every field of every line on the board.
+     * Line gives a point for every field of the player if the opponent has no field in this line.
+     * Slow reference for the points kept up to date by the moves, it doesn't use the masks of the lines.
+     * @return      points of both players as array [Blue, Red]
      */
-    private int[] countRowsIncludesStartedLines()
+    int[] countPointsIncludesStartedLinesArrayByScan()
     {
         int[] returnPointsArray = new int[2];
-        int bluePoints = 0;
-        int redPoints = 0;
 
-        for(int row = 0; row < BOARD_WIDTH; row++)
+        for(State[] line : scanLines())
         {
-            //set a actual color as the first color in this row
-            State actualColor = board[row][0];
+            State actualColor = State.Blank;
             int points = 0;
 
-            for(int col = 0; col < BOARD_WIDTH; col++)
+            for(State field : line)
             {
                 //if actual color is still blank, set a color from new position
-                if(actualColor == State.Blank) actualColor = board[row][col];
+                if(actualColor == State.Blank) actualColor = field;
 
                 //count points if the color doesn't change
-                if(board[row][col] == actualColor && actualColor != State.Blank) points++;
-                else if(board[row][col] != State.Blank)
+                if(field == actualColor && actualColor != State.Blank) points++;
+                else if(field != State.Blank)
                 {
                     points = 0;
                     break;
@@ -506,232 +716,223 @@ public class Board
             }
 
             //assign the points to players started line
-            if(actualColor == State.Blue) bluePoints += points;
-            else if (actualColor == State.Red) redPoints += points;
-
+            if(actualColor == State.Blue) returnPointsArray[0] += points;
+            else if(actualColor == State.Red) returnPointsArray[1] += points;
         }
 
-        returnPointsArray[0] = bluePoints;
-        returnPointsArray[1] = redPoints;
         return returnPointsArray;
     }
 
     /**
-     * Counts a points of unfinished game in columns.
-     * @return      points of both players in columns as array [Blue, Red]
+     * Counts the points of both evaluation functions from the fields on the board, line by line,
+     * with the points of every line read from the table of the line states.
+     * @return      points as array [Blue, Red, Blue started lines, Red started lines]
      */
-    private int[] countColumnsIncludesStartedLines()
+    int[] countPointsArrayByTable()
     {
-        int[] returnPointsArray = new int[2];
-        int bluePoints = 0;
-        int redPoints = 0;
+        int points = 0;
 
-        for(int col = 0; col < BOARD_WIDTH; col++)
+        for(int line = 0; line < LINES_COUNT; line++)
         {
-            //set a actual color as the first color in this column
-            State actualColor = board[0][col];
-            int points = 0;
+            long mask = LINE_MASKS[line];
+            points += LINE_POINTS[lineState(LINE_LENGTHS[line],
+                    Long.bitCount(blueFields & mask), Long.bitCount(redFields & mask))];
+        }
 
-            for(int row = 0; row < BOARD_WIDTH; row++)
-            {
-                //if actual color is still blank, set a color from new position
-                if(actualColor == State.Blank) actualColor = board[row][col];
+        return unpackPointsArray(points);
+    }
 
-                //count points if the color doesn't change
-                if(board[row][col] == actualColor && actualColor != State.Blank) points++;
-                else if(board[row][col] != State.Blank)
-                {
-                    points = 0;
-                    break;
-                }
-            }
+    /**
+     * Get the points of both evaluation functions kept up to date by the moves.
+     * @return      points as array [Blue, Red, Blue started lines, Red started lines]
+     */
+    int[] countPointsArrayByLineStates()
+    {
+        return unpackPointsArray(linesPoints);
+    }
 
-            //assign the points to players started line
-            if(actualColor == State.Blue) bluePoints += points;
-            else if (actualColor == State.Red) redPoints += points;
-        }
+    /**
+     * Get all points from the packed points.
+     * @param _points    points packed as in LINE_POINTS
+     * @return           points as array [Blue, Red, Blue started lines, Red started lines]
+     */
+    private static int[] unpackPointsArray(int _points)
+    {
+        return new int[] {
+                unpackPoints(_points, BLUE_POINTS_SHIFT),
+                unpackPoints(_points, RED_POINTS_SHIFT),
+                unpackPoints(_points, BLUE_STARTED_POINTS_SHIFT),
+                unpackPoints(_points, RED_STARTED_POINTS_SHIFT)
+        };
+    }
 
-        returnPointsArray[0] = bluePoints;
-        returnPointsArray[1] = redPoints;
-        return returnPointsArray;
+    /**
+     * Checks if the game is over (if there is a winner or there is a draw)
+     * @return      true if game is over
+     */
+    public boolean isGameOver()
+    {
+        return gameOver;
     }
 
     /**
-     * Counts a points of unfinished game in diagonals from left.
-     * @return      Points of both players as array [Blue, Red]
+     * Get a copy of the array that represents the board.
+     * @return          the board array
      */
-    private int[] countDiagonalsFromLeftIncludesStartedLines()
+    State[][] toArray ()
     {
-        int[] returnPointsArray = new int[2];
-        int bluePoints = 0;
-        int redPoints = 0;
+        State[][] board = new State[BOARD_WIDTH][BOARD_WIDTH];
 
-        //count from left
-        for(int row = 1; row < BOARD_WIDTH; row++)
-        {
-            //set a actual color as the first color in this row
-            State actualColor = board[row][0];
-            int points = 0;
+        for(int row = 0; row < BOARD_WIDTH; row++)
+            for(int col = 0; col < BOARD_WIDTH; col++)
+                board[row][col] = getField(row * BOARD_WIDTH + col);
 
-            int backingUpRow = row;
-            int col = 0;
+        return board;
+    }
 
-            while(backingUpRow >= 0)
-            {
-                //if actual color is still blank, set a color from new position
-                if(actualColor == State.Blank) actualColor = board[backingUpRow][col];
+    /**
+     * Get the state of the specified field.
+     * @param _index    index of the field on the board
+     * @return          the color of the field (or Blank if it's empty)
+     */
+    private State getField(int _index)
+    {
+        long field = 1L << _index;
+        if((blueFields & field) != 0) return State.Blue;
+        else if((redFields & field) != 0) return State.Red;
+        else return State.Blank;
+    }
 
-                //count points if the color doesn't change
-                if(board[backingUpRow][col] == actualColor && actualColor != State.Blank) points++;
-                else if(board[backingUpRow][col] != State.Blank)
-                {
-                    points = 0;
-                    break;
-                }
+    /**
+     * Get the Zobrist hash key of the board, which covers the colours of the fields and the turn.
+     * It's kept up to date by the moves, so it's cheap to get in every node of the search.
+     * @return      the hash key of the board
+     */
+    public long getHashKey()
+    {
+        return hashKey;
+    }
 
-                //back up the row and move forward the col
-                backingUpRow--;
-                col++;
-            }
+    /**
+     * Counts the Zobrist hash key from the fields on the board.
+     * Slow reference for the hash key kept up to date by the moves.
+     * @return      the hash key of the board
+     */
+    long countHashKey()
+    {
+        long key = playersTurn == State.Red ? RED_TURN_KEY : 0L;
 
-            //assign the points to players started line
-            if(actualColor == State.Blue) bluePoints += points;
-            else if (actualColor == State.Red) redPoints += points;
-        }
+        for(long fields = blueFields; fields != 0; fields &= fields - 1)
+            key ^= BLUE_FIELD_KEYS[Long.numberOfTrailingZeros(fields)];
+        for(long fields = redFields; fields != 0; fields &= fields - 1)
+            key ^= RED_FIELD_KEYS[Long.numberOfTrailingZeros(fields)];
 
-        //count from bottom
-        for(int col = 1; col < BOARD_WIDTH - 1; col++)
-        {
-            //set a actual color as the first color in this column
-            State actualColor = board[BOARD_WIDTH - 1][col];
-            int points = 0;
+        return key;
+    }
 
-            int growingUpCol = col;
-            int row = BOARD_WIDTH - 1;
+    /**
+     * Get the canonical hash key of the board: the same key for all boards which are moved onto each other
+     * by the symmetries (rotations and reflections), so the symmetric positions can share the results
+     * in the transposition tables and the opening books.
+     * The key is the hash key of the board moved by getCanonicalSymmetry(), the moves saved with it have to be
+     * moved by the same symmetry (see getSymmetricField()).
+     * @return      the lowest hash key of the symmetric boards
+     */
+    public long getCanonicalHashKey()
+    {
+        return symmetricHashKeys[getCanonicalSymmetry()] ^ (playersTurn == State.Red ? RED_TURN_KEY : 0L);
+    }
 
-            while(growingUpCol < BOARD_WIDTH)
-            {
-                //if actual color is still blank, set a color from new position
-                if(actualColor == State.Blank) actualColor = board[row][growingUpCol];
+    /**
+     * Get the symmetry which moves the board to its canonical position (with the canonical hash key).
+     * @return      the symmetry with the lowest hash key of the symmetric board
+     */
+    public int getCanonicalSymmetry()
+    {
+        int canonical = IDENTITY;
+        for(int symmetry = 1; symmetry < SYMMETRIES; symmetry++)
+            if(symmetricHashKeys[symmetry] < symmetricHashKeys[canonical]) canonical = symmetry;
 
-                //count points if the color doesn't change
-                if(board[row][growingUpCol] == actualColor && actualColor != State.Blank) points++;
-                else if(board[row][growingUpCol] != State.Blank)
-                {
-                    points = 0;
-                    break;
-                }
-                //grow up the column and back up the col
-                growingUpCol++;
-                row--;
-            }
+        return canonical;
+    }
 
-            //assign the points to players started line
-            if(actualColor == State.Blue) bluePoints += points;
-            else if (actualColor == State.Red) redPoints += points;
+    /**
+     * Get the symmetries which move the board onto itself. The keys of the symmetric boards find them
+     * without moving the fields, the fields are compared only if the keys are the same.
+     * @return      mask with the bit (1 << symmetry) set for every such symmetry (the identity is always set)
+     */
+    public int getSymmetries()
+    {
+        int symmetries = 1 << IDENTITY;
+        for(int symmetry = 1; symmetry < SYMMETRIES; symmetry++)
+        {
+            if(symmetricHashKeys[symmetry] == symmetricHashKeys[IDENTITY]
+                    && getSymmetricFields(blueFields, symmetry) == blueFields
+                    && getSymmetricFields(redFields, symmetry) == redFields)
+                symmetries |= 1 << symmetry;
         }
 
-        returnPointsArray[0] = bluePoints;
-        returnPointsArray[1] = redPoints;
-        return returnPointsArray;
+        return symmetries;
     }
 
     /**
-     * Counts a points of unfinished game in diagonals from right.
-     * @return      Points of both players as array [Blue, Red]
+     * Counts the canonical hash key from the fields of all symmetric boards.
+     * Slow reference for the canonical key kept up to date by the moves.
+     * @return      the canonical hash key of the board
      */
-    private int[] countDiagonalsFromRightIncludesStartedLines()
+    long countCanonicalHashKey()
     {
-        int[] returnPointsArray = new int[2];
-        int bluePoints = 0;
-        int redPoints = 0;
-
-        //count from left
-        for(int row = 0; row < BOARD_WIDTH - 1; row++)
+        long canonical = 0L;
+        for(int symmetry = 0; symmetry < SYMMETRIES; symmetry++)
         {
-            //set a actual color as the first color in this row
-            State actualColor = board[row][0];
-            int points = 0;
-
-            int growingUpRow = row;
-            int col = 0;
-
-            while(growingUpRow < BOARD_WIDTH)
-            {
-                //if actual color is still blank, set a color from new position
-                if(actualColor == State.Blank) actualColor = board[growingUpRow][col];
-
-                //count points if the color doesn't change
-                if(board[growingUpRow][col] == actualColor && actualColor != State.Blank) points++;
-                else if(board[growingUpRow][col] != State.Blank)
-                {
-                    points = 0;
-                    break;
-                }
-                //grow up the row and column
-                growingUpRow++;
-                col++;
-            }
-
-            //assign the points to players started line
-            if(actualColor == State.Blue) bluePoints += points;
-            else if (actualColor == State.Red) redPoints += points;
+            long key = 0L;
+            for(long fields = getSymmetricFields(blueFields, symmetry); fields != 0; fields &= fields - 1)
+                key ^= BLUE_FIELD_KEYS[Long.numberOfTrailingZeros(fields)];
+            for(long fields = getSymmetricFields(redFields, symmetry); fields != 0; fields &= fields - 1)
+                key ^= RED_FIELD_KEYS[Long.numberOfTrailingZeros(fields)];
 
+            if(symmetry == IDENTITY || key < canonical) canonical = key;
         }
 
-        //count from top
-        for(int col = 1; col < BOARD_WIDTH - 1; col++)
-        {
-            //set a actual color as the first color in this column
-            State actualColor = board[0][col];
-            int points = 0;
-
-            int growingUpCol = col;
-            int row = 0;
-
-            while(growingUpCol < BOARD_WIDTH)
-            {
-                //if actual color is still blank, set a color from new position
-                if(actualColor == State.Blank) actualColor = board[row][growingUpCol];
-
-                //count points if the color doesn't change
-                if(board[row][growingUpCol] == actualColor && actualColor != State.Blank) points++;
-                else if(board[row][growingUpCol] != State.Blank)
-                {
-                    points = 0;
-                    break;
-                }
-                //grow up the column and row
-                growingUpCol++;
-                row++;
-            }
-
-            //assign the points to players started line
-            if(actualColor == State.Blue) bluePoints += points;
-            else if (actualColor == State.Red) redPoints += points;
-        }
+        return canonical ^ (playersTurn == State.Red ? RED_TURN_KEY : 0L);
+    }
 
-        returnPointsArray[0] = bluePoints;
-        returnPointsArray[1] = redPoints;
-        return returnPointsArray;
+    /**
+     * Get the field which the specified field is moved to by the symmetry.
+     * @param _index        index of the field on the board
+     * @param _symmetry     the symmetry (0 - SYMMETRIES - 1)
+     * @return              index of the symmetric field
+     */
+    public static int getSymmetricField(int _index, int _symmetry)
+    {
+        return SYMMETRIC_FIELDS[_symmetry][_index];
     }
 
     /**
-     * Checks if the game is over (if there is a winner or there is a draw)
-     * @return      true if game is over
+     * Get the fields which the specified fields are moved to by the symmetry.
+     * @param _fields       bitboard of the fields
+     * @param _symmetry     the symmetry (0 - SYMMETRIES - 1)
+     * @return              bitboard of the symmetric fields
      */
-    public boolean isGameOver()
+    public static long getSymmetricFields(long _fields, int _symmetry)
     {
-        return gameOver;
+        int[] symmetric = SYMMETRIC_FIELDS[_symmetry];
+        long fields = 0L;
+
+        for(; _fields != 0; _fields &= _fields - 1)
+            fields |= 1L << symmetric[Long.numberOfTrailingZeros(_fields)];
+
+        return fields;
     }
 
     /**
-     * Get a copy of the array that represents the board.
-     * @return          the board array
+     * Get the symmetry which moves the fields back (e.g. a move from the canonical position to the board).
+     * @param _symmetry     the symmetry (0 - SYMMETRIES - 1)
+     * @return              the inverse symmetry
      */
-    State[][] toArray ()
+    public static int getInverseSymmetry(int _symmetry)
     {
-        return board.clone();
+        return INVERSE_SYMMETRIES[_symmetry];
     }
 
     /**
@@ -764,13 +965,152 @@ public class Board
 
     /**
      * Get the indexes of all fields on the board that are empty.
-     * @return      the indexes of empty fields (Blank)
+     * The set is built from the board on every call, so changing it doesn't change the board.
+     * @return      the indexes of empty fields (Blank) in ascending order
      */
     public HashSet<Integer> getAvailableMoves()
     {
+        HashSet<Integer> availableMoves = new LinkedHashSet<>();
+
+        //add the index of every empty field, from the lowest one
+        for(long empty = getEmptyFields(); empty != 0; empty &= empty - 1)
+            availableMoves.add(Long.numberOfTrailingZeros(empty));
+
         return availableMoves;
     }
 
+    /**
+     * Fills the specified array with the indexes of all fields on the board that are empty.
+     * Nothing is allocated, so the engines can call it in every node of the search.
+     * @param _moves    array for the indexes (BOARD_SIZE long is always enough)
+     * @return          number of the empty fields, their indexes are in ascending order at the start of the array
+     */
+    public int getAvailableMoves(int[] _moves)
+    {
+        int movesCount = 0;
+
+        for(long empty = getEmptyFields(); empty != 0; empty &= empty - 1)
+            _moves[movesCount++] = Long.numberOfTrailingZeros(empty);
+
+        return movesCount;
+    }
+
+    /**
+     * Fills the specified array with the indexes of the empty fields which are not equivalent moves.
+     * Empty fields without live lines (every line through them has fields of both players) are irrelevant:
+     * colour of such field changes no points of any line, so all of them lead to the same game
+     * and only the lowest one of them is filled in.
+     * If a symmetry moves the board onto itself (at the start of the game), the moves it moves onto each other
+     * lead to the symmetric games, so only the lowest one of them is filled in too.
+     * @param _moves    array for the indexes (BOARD_SIZE long is always enough)
+     * @return          number of the moves, their indexes are in ascending order at the start of the array
+     */
+    public int getDistinctMoves(int[] _moves)
+    {
+        long irrelevant = getIrrelevantMoves();
+        long distinct = getEmptyFields() & ~irrelevant | Long.lowestOneBit(irrelevant);
+        int symmetries = getSymmetries() & ~(1 << IDENTITY);
+        int movesCount = 0;
+
+        for(; distinct != 0; distinct &= distinct - 1)
+        {
+            int move = Long.numberOfTrailingZeros(distinct);
+            if(symmetries == 0 || isLowestSymmetricMove(move, symmetries)) _moves[movesCount++] = move;
+        }
+
+        return movesCount;
+    }
+
+    /**
+     * Checks if the specified move is the lowest of the moves which the symmetries move it to.
+     * @param _index        index of the empty field
+     * @param _symmetries   mask of the symmetries which move the board onto itself
+     * @return              true if no symmetry moves the field to a lower one
+     */
+    private static boolean isLowestSymmetricMove(int _index, int _symmetries)
+    {
+        for(; _symmetries != 0; _symmetries &= _symmetries - 1)
+            if(SYMMETRIC_FIELDS[Integer.numberOfTrailingZeros(_symmetries)][_index] < _index) return false;
+
+        return true;
+    }
+
+    /**
+     * Get the mask of the empty fields without live lines (every line through them has fields of both players).
+     * @return      bitboard with the bit set for every irrelevant empty field
+     */
+    public long getIrrelevantMoves()
+    {
+        return deadFields & getEmptyFields();
+    }
+
+    /**
+     * Counts the mask of the fields without live lines from the fields on the board.
+     * Slow reference for the mask kept up to date by the moves.
+     * @return      bitboard with the bit set for every field without live lines
+     */
+    long countDeadFields()
+    {
+        long dead = 0L;
+
+        for(int index = 0; index < BOARD_SIZE; index++)
+        {
+            boolean live = false;
+            for(int line : FIELD_LINES[index])
+                live |= (LINE_MASKS[line] & blueFields) == 0 || (LINE_MASKS[line] & redFields) == 0;
+
+            if(!live) dead |= 1L << index;
+        }
+
+        return dead;
+    }
+
+    /**
+     * Get the number of the fields on the board that are empty.
+     * @return      the number of the empty fields
+     */
+    public int getAvailableMovesCount()
+    {
+        return BOARD_SIZE - moveCount;
+    }
+
+    /**
+     * Checks if the specified field is empty.
+     * @param _index    index of the field on the board
+     * @return          true if the field can be played
+     */
+    public boolean isAvailableMove(int _index)
+    {
+        return _index >= 0 && _index < BOARD_SIZE && (getEmptyFields() & (1L << _index)) != 0;
+    }
+
+    /**
+     * Get the mask of the fields coloured by Blue.
+     * @return      bitboard with the bit (row * BOARD_WIDTH + column) set for every Blue field
+     */
+    public long getBlueFields()
+    {
+        return blueFields;
+    }
+
+    /**
+     * Get the mask of the fields coloured by Red.
+     * @return      bitboard with the bit (row * BOARD_WIDTH + column) set for every Red field
+     */
+    public long getRedFields()
+    {
+        return redFields;
+    }
+
+    /**
+     * Get the mask of the fields on the board that are empty.
+     * @return      bitboard with the bit (row * BOARD_WIDTH + column) set for every empty field
+     */
+    public long getEmptyFields()
+    {
+        return ~(blueFields | redFields) & FULL_MASK;
+    }
+
     /**
      * Get a deep copy of the Stratego board.
      * @return      an identical copy of the board
@@ -779,14 +1119,20 @@ public class Board
     {
         Board board = new Board();
 
-        for (int i = 0; i < board.board.length; i++) board.board[i] = this.board[i].clone();
-
+        board.blueFields = this.blueFields;
+        board.redFields = this.redFields;
         board.playersTurn = this.playersTurn;
         board.winner = this.winner;
-        board.availableMoves = new HashSet<>();
-        board.availableMoves.addAll(this.availableMoves);
         board.moveCount = this.moveCount;
         board.gameOver = this.gameOver;
+        board.hashKey = this.hashKey;
+        System.arraycopy(this.symmetricHashKeys, 0, board.symmetricHashKeys, 0, SYMMETRIES);
+        System.arraycopy(this.history, 0, board.history, 0, this.moveCount);
+        System.arraycopy(this.lineStates, 0, board.lineStates, 0, LINES_COUNT);
+        board.linesPoints = this.linesPoints;
+        board.linesMaxPoints = this.linesMaxPoints;
+        System.arraycopy(this.liveLines, 0, board.liveLines, 0, BOARD_SIZE);
+        board.deadFields = this.deadFields;
         return board;
     }
 
@@ -803,27 +1149,17 @@ public class Board
             for (int x = 0; x < BOARD_WIDTH; x++)
             {
                 int pos = y*BOARD_WIDTH + x;
+                State field = getField(pos);
 
-                if (board[y][x] == State.Blank)
+                if (field == State.Blank)
                 {
                     if(pos < 10) sb.append(" " + pos);
                     else sb.append(pos);
                 }
                 else
                 {
-//                    sb.append(board[y][x].name());
-                    if(board[y][x] == State.Blue)
-                    {
-//                        if(pos < 10) sb.append(ANSI_BLUE + " B" + ANSI_RESET);
-//                        else
-                            sb.append(ANSI_BLUE + " B" + ANSI_RESET);
-                    }
-                    else
-                    {
-//                        if(pos < 10) sb.append(ANSI_RED + " R" + ANSI_RESET);
-//                        else
-                            sb.append(ANSI_RED + " R" + ANSI_RESET);
-                    }
+                    if(field == State.Blue) sb.append(ANSI_BLUE + " B" + ANSI_RESET);
+                    else sb.append(ANSI_RED + " R" + ANSI_RESET);
                 }
                 sb.append(" ");
 
@@ -2,14 +2,24 @@ package Stratego;
 
 import AI.Algorithms;
 import AI.AlphaBetaPruning;
+import AI.MonteCarloTreeSearch;
+import AI.SearchResult;
 import Stratego.Board.State;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 public class Console
 {
+    //Time of the move of the Monte Carlo Tree Search engine in milliseconds
+    private static final long ENGINE_TIME_MILLIS = 1000;
+
     private Board board;
     private Scanner sc;
+    private MonteCarloTreeSearch engine;    //plays Red with pondering, keeps its tree between the moves
+                                            //and grows it on the player's time, null without pondering
+    private Thread pondering;               //search of the engine while the player thinks
+    private AtomicBoolean stopPondering;
     private int playerBlueTime;
     private int playerRedTime;
     private long startMeasureTime;
@@ -23,6 +33,7 @@ public class Console
     {
         this.sc = new Scanner(System.in);
         this.board = new Board();
+        this.engine = null;
         playerBlueTime = 0;
         playerRedTime = 0;
         startMeasureTime = 0;
@@ -34,6 +45,7 @@ public class Console
      */
     private void play()
     {
+        this.choosePondering();
         System.out.println("Starting a new game.");
         do
         {
@@ -59,10 +71,10 @@ public class Console
             startMeasureTime = System.nanoTime();
 
             this.getPlayerMove();
-//            Algorithms.alphaBetaPruning(this.board, 5);
-//            Algorithms.alphaBetaPruningStartedLines(this.board, 5);
-//            Algorithms.alphaBetaPruningSortingMoves(this.board, 5);
-//            Algorithms.alphaBetaPruningBestFirst(this.board, 5);]
+//            this.board.move(Algorithms.alphaBetaPruning(this.board, 5).getBestMove());
+//            this.board.move(Algorithms.alphaBetaPruningStartedLines(this.board, 5).getBestMove());
+//            this.board.move(Algorithms.alphaBetaPruningSortingMoves(this.board, 5).getBestMove());
+//            this.board.move(Algorithms.alphaBetaPruningBestFirst(this.board, 5).getBestMove());
 
             stopMeasureTime = System.nanoTime();
             playerBlueTime += (stopMeasureTime - startMeasureTime)/1000000;
@@ -71,12 +83,15 @@ public class Console
         {
             startMeasureTime = System.nanoTime();
 
-//            Algorithms.random(this.board);
-            Algorithms.miniMax(this.board, 3);
-//            Algorithms.alphaBetaPruning(this.board, 5);
-//            Algorithms.alphaBetaPruningStartedLines(this.board, 5);
-//            Algorithms.alphaBetaPruningSortingMoves(this.board, 5);
-//            Algorithms.alphaBetaPruningBestFirst(this.board, 50);
+//            SearchResult result = Algorithms.random(this.board);
+            SearchResult result = this.engine != null
+                    ? this.engine.search(State.Red, this.board, ENGINE_TIME_MILLIS)
+                    : Algorithms.miniMax(this.board, 3);
+//            SearchResult result = Algorithms.alphaBetaPruning(this.board, 5);
+//            SearchResult result = Algorithms.alphaBetaPruningStartedLines(this.board, 5);
+//            SearchResult result = Algorithms.alphaBetaPruningSortingMoves(this.board, 5);
+//            SearchResult result = Algorithms.alphaBetaPruningBestFirst(this.board, 50);
+            this.board.move(result.getBestMove());
 
             stopMeasureTime = System.nanoTime();
             playerRedTime += (stopMeasureTime - startMeasureTime)/1000000;
@@ -99,12 +114,22 @@ public class Console
 
 
     /**
-     * Gets a player move.
+     * Gets a player move. With pondering the engine searches the board until the move is read.
      */
     private void getPlayerMove()
     {
         System.out.print("Index of move: ");
-        int move = this.sc.nextInt();
+        if (this.engine != null) this.startPondering();
+        int move;
+        try
+        {
+            move = this.sc.nextInt();
+        }
+        finally
+        {
+            this.stopPondering();
+        }
+
         if (move >= 0 && move < board.getBoardWidth() * board.getBoardWidth())
         {
             if (!this.board.move(move))
@@ -122,6 +147,52 @@ public class Console
 
     }
 
+    /**
+     * Prompts the pondering on the console. With pondering Red is played by the Monte Carlo Tree Search engine,
+     * which searches on the player's time and starts its next move from that tree. Without it Red is played
+     * by the MiniMax Algorithm and nothing is searched while the player thinks.
+     */
+    private void choosePondering()
+    {
+        if (this.promptYesNo("Should the engine think on your time (Monte Carlo Tree Search)? (Y/N): "))
+            this.engine = new MonteCarloTreeSearch();
+    }
+
+    /**
+     * Starts the search of the engine on the player's time in the background.
+     * The engine searches its own copy of the board, so the board can be printed meanwhile.
+     */
+    private void startPondering()
+    {
+        Board ponderBoard = this.board.getDeepCopy();
+        AtomicBoolean stop = new AtomicBoolean();
+
+        this.stopPondering = stop;
+        this.pondering = new Thread(() -> this.engine.ponder(ponderBoard, stop), "Pondering");
+        this.pondering.setDaemon(true);
+        this.pondering.start();
+    }
+
+    /**
+     * Stops the search of the engine on the player's time and waits for its end,
+     * so the engine can search the board after the player's move.
+     */
+    private void stopPondering()
+    {
+        if (this.pondering == null) return;
+
+        this.stopPondering.set(true);
+        try
+        {
+            this.pondering.join();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        this.pondering = null;
+    }
+
     /**
      * Prints a winner of the Strateg game.
      */
@@ -160,16 +231,26 @@ public class Console
      * @return True if start new game, false if don't start.
      */
     private boolean promptTryAgain()
+    {
+        return this.promptYesNo("Would you like to start a new game? (Y/N): ");
+    }
+
+    /**
+     * Prompts a question on the console until it's answered by Y or N.
+     * @param _question the question
+     * @return True if the answer is Y, false if it's N.
+     */
+    private boolean promptYesNo(String _question)
     {
         while(true)
         {
-            System.out.print("Would you like to start a new game? (Y/N): ");
-            String newGame = this.sc.next();
-            if (newGame.equalsIgnoreCase("y")) {
+            System.out.print(_question);
+            String answer = this.sc.next();
+            if (answer.equalsIgnoreCase("y")) {
                 return true;
             }
 
-            if (newGame.equalsIgnoreCase("n")) {
+            if (answer.equalsIgnoreCase("n")) {
                 return false;
             }
 
@@ -0,0 +1,80 @@
+package Stratego;
+
+import AI.EndgameSolver;
+import AI.SearchResult;
+
+import java.util.Random;
+
+/**
+ * Benchmark of the exact endgame solver.
+ * Solves random positions with every number of empty fields and prints the time and the nodes of the solves,
+ * so the number of empty fields where the engines switch to the solver can be chosen.
+ */
+public class EndgameBenchmark
+{
+    /**
+     * EndgameBenchmark cannot be instantiated.
+     */
+    private EndgameBenchmark() {}
+
+    /**
+     * Solves the specified number of random positions with every number of empty fields and prints the results.
+     * @param _minEmptyFields   the lowest number of empty fields
+     * @param _maxEmptyFields   the highest number of empty fields
+     * @param _positions        number of positions with every number of empty fields
+     * @param _seed             seed of the random positions
+     */
+    static void run(int _minEmptyFields, int _maxEmptyFields, int _positions, long _seed)
+    {
+        Random random = new Random(_seed);
+        int[] moves = new int[Board.BOARD_SIZE];
+
+        System.out.println("empty  positions    avg ms    max ms     avg nodes   nodes/s");
+        for(int emptyFields = _minEmptyFields; emptyFields <= _maxEmptyFields; emptyFields++)
+        {
+            long totalTime = 0;
+            long maxTime = 0;
+            long totalNodes = 0;
+
+            for(int position = 0; position < _positions; position++)
+            {
+                //random game to the number of empty fields, the solver gets a new table for every position
+                Board board = new Board();
+                while(board.getAvailableMovesCount() > emptyFields)
+                    board.makeMove(moves[random.nextInt(board.getAvailableMoves(moves))]);
+
+                EndgameSolver solver = new EndgameSolver();
+                long start = System.nanoTime();
+                SearchResult result = solver.search(board.getTurn(), board);
+                long time = System.nanoTime() - start;
+
+                totalTime += time;
+                maxTime = Math.max(maxTime, time);
+                totalNodes += result.getNodes();
+            }
+
+            System.out.println(String.format("%5d  %9d  %8.2f  %8.2f  %12d  %8.0f", emptyFields, _positions,
+                    totalTime / 1e6 / _positions, maxTime / 1e6, totalNodes / _positions,
+                    totalNodes / Math.max(totalTime / 1e9, 1e-9)));
+        }
+    }
+
+    /**
+     * Executable method to run the benchmark.
+     * @param args String array main args: [lowest empty fields] [highest empty fields] [positions] [seed]
+     */
+    public static void main(String[] args)
+    {
+        int minEmptyFields = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int maxEmptyFields = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int positions = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        if(minEmptyFields < 1 || maxEmptyFields > Board.BOARD_SIZE || minEmptyFields > maxEmptyFields)
+            throw new IllegalArgumentException("Empty fields must be between 1 and " + Board.BOARD_SIZE + ".");
+
+        System.out.println("Solving " + positions + " random positions of every number of empty fields (seed "
+                + seed + ").");
+        run(minEmptyFields, maxEmptyFields, positions, seed);
+    }
+}
@@ -0,0 +1,120 @@
+package Stratego;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Verification mode for the evaluation functions.
+ * Plays random positions and compares the points read from the table of the line states
+ * (both counted from the fields and kept up to date by the moves) with the points counted by checking every field
+ * of every line, which doesn't use the masks of the lines.
+ * Checks also the hash key, the canonical hash key, the bounds of the points and the fields without live lines kept up to date by the moves.
+ */
+public class EvaluationCheck
+{
+    /**
+     * EvaluationCheck cannot be instantiated.
+     */
+    private EvaluationCheck() {}
+
+    /**
+     * Checks the points of the specified number of random positions.
+     * @param _positions     number of positions to check
+     * @param _seed          seed of the random positions
+     * @return               true if all points and hash keys are the same
+     */
+    static boolean check(int _positions, long _seed)
+    {
+        Random random = new Random(_seed);
+        Board board = new Board();
+        int movesCount = 0;
+        int[] moves = new int[Board.BOARD_SIZE];
+
+        for(int position = 0; position < _positions; position++)
+        {
+            //start a new game when it's over, sometimes take back a few moves
+            if(board.isGameOver())
+            {
+                board.restart();
+                movesCount = 0;
+            }
+            else if(random.nextInt(4) == 0)
+            {
+                for(int undo = Math.min(random.nextInt(4), movesCount); undo > 0; undo--, movesCount--)
+                    board.undoMove();
+            }
+
+            int availableMoves = board.getAvailableMoves(moves);
+            board.makeMove(moves[random.nextInt(availableMoves)]);
+            movesCount++;
+
+            int[] scanned = new int[4];
+            System.arraycopy(board.countPointsArrayByScan(), 0, scanned, 0, 2);
+            System.arraycopy(board.countPointsIncludesStartedLinesArrayByScan(), 0, scanned, 2, 2);
+
+            int[] byTable = board.countPointsArrayByTable();
+            int[] byLineStates = board.countPointsArrayByLineStates();
+
+            if(!Arrays.equals(scanned, byTable) || !Arrays.equals(scanned, byLineStates))
+            {
+                System.out.println("\n" + board + "\n");
+                System.out.println("Scanned lines:  " + Arrays.toString(scanned));
+                System.out.println("Table:          " + Arrays.toString(byTable));
+                System.out.println("Line states:    " + Arrays.toString(byLineStates));
+                return false;
+            }
+
+            if(board.getHashKey() != board.countHashKey())
+            {
+                System.out.println("\n" + board + "\n");
+                System.out.println("Hash key:       " + Long.toHexString(board.getHashKey()));
+                System.out.println("Counted:        " + Long.toHexString(board.countHashKey()));
+                return false;
+            }
+
+            if(board.getCanonicalHashKey() != board.countCanonicalHashKey())
+            {
+                System.out.println("\n" + board + "\n");
+                System.out.println("Canonical key:  " + Long.toHexString(board.getCanonicalHashKey()));
+                System.out.println("Counted:        " + Long.toHexString(board.countCanonicalHashKey()));
+                return false;
+            }
+
+            if(!Arrays.equals(board.countPointsBoundsArray(), board.countPointsBoundsArrayByScan()))
+            {
+                System.out.println("\n" + board + "\n");
+                System.out.println("Bounds:         " + Arrays.toString(board.countPointsBoundsArray()));
+                System.out.println("Scanned lines:  " + Arrays.toString(board.countPointsBoundsArrayByScan()));
+                return false;
+            }
+
+            if(board.getIrrelevantMoves() != (board.countDeadFields() & board.getEmptyFields()))
+            {
+                System.out.println("\n" + board + "\n");
+                System.out.println("Irrelevant:     " + Long.toBinaryString(board.getIrrelevantMoves()));
+                System.out.println("Counted:        " + Long.toBinaryString(board.countDeadFields() & board.getEmptyFields()));
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Executable method to run the verification.
+     * @param args String array main args: [number of positions] [seed]
+     */
+    public static void main(String[] args)
+    {
+        int positions = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : System.nanoTime();
+
+        System.out.println("Checking " + positions + " random positions (seed " + seed + ").");
+        if(check(positions, seed)) System.out.println("All points and hash keys are the same.");
+        else
+        {
+            System.out.println("Points or hash keys are different.");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package Stratego;
+
+import AI.MonteCarloTreeSearch;
+
+import java.util.Random;
+
+/**
+ * Benchmark of the Monte Carlo Tree Search.
+ * Searches random positions with every policy of the playouts and prints the playouts per second,
+ * then searches them with more and more threads and prints the scaling of the playouts per second.
+ */
+public class MonteCarloBenchmark
+{
+    /**
+     * MonteCarloBenchmark cannot be instantiated.
+     */
+    private MonteCarloBenchmark() {}
+
+    /**
+     * Searches the specified number of random positions with the specified numbers of empty fields
+     * for the time limit and prints the playouts per second of every policy of the playouts.
+     * @param _emptyFields      numbers of empty fields of the positions
+     * @param _positions        number of positions with every number of empty fields
+     * @param _timeLimitMillis  the time limit of every search in milliseconds
+     * @param _seed             seed of the random positions
+     */
+    static void run(int[] _emptyFields, int _positions, long _timeLimitMillis, long _seed)
+    {
+        System.out.println("playout   empty  positions   playouts/s");
+        for(MonteCarloTreeSearch.Playout playout : MonteCarloTreeSearch.Playout.values())
+        {
+            MonteCarloTreeSearch search = new MonteCarloTreeSearch(MonteCarloTreeSearch.DEFAULT_EXPLORATION,
+                    playout, 1, MonteCarloTreeSearch.DEFAULT_MAX_NODES, _seed);
+
+            for(int emptyFields : _emptyFields)
+                System.out.println(String.format("%-8s  %5d  %9d  %11.0f", playout, emptyFields, _positions,
+                        playoutsPerSecond(search, emptyFields, _positions, _timeLimitMillis, _seed)));
+        }
+    }
+
+    /**
+     * Searches the specified number of random positions with 1, 2, 4... threads up to the maximum
+     * for the time limit and prints the playouts per second and their ratio to one thread.
+     * @param _emptyFields      number of empty fields of the positions
+     * @param _positions        number of positions
+     * @param _timeLimitMillis  the time limit of every search in milliseconds
+     * @param _maxThreads       the highest number of threads
+     * @param _seed             seed of the random positions
+     */
+    static void runThreads(int _emptyFields, int _positions, long _timeLimitMillis, int _maxThreads, long _seed)
+    {
+        System.out.println("threads  empty  positions   playouts/s  speedup");
+        double onePlayoutsPerSecond = 0;
+        for(int threads = 1; ; threads = Math.min(2 * threads, _maxThreads))
+        {
+            MonteCarloTreeSearch search = new MonteCarloTreeSearch(MonteCarloTreeSearch.DEFAULT_EXPLORATION,
+                    MonteCarloTreeSearch.Playout.RANDOM, threads, MonteCarloTreeSearch.DEFAULT_MAX_NODES, _seed);
+
+            double playoutsPerSecond = playoutsPerSecond(search, _emptyFields, _positions, _timeLimitMillis, _seed);
+            if(threads == 1) onePlayoutsPerSecond = playoutsPerSecond;
+
+            System.out.println(String.format("%7d  %5d  %9d  %11.0f  %7.2f", threads, _emptyFields, _positions,
+                    playoutsPerSecond, playoutsPerSecond / Math.max(onePlayoutsPerSecond, 1e-9)));
+            if(threads >= _maxThreads) break;
+        }
+    }
+
+    /**
+     * Searches random positions for the time limit.
+     * @param _search           the engine to search with
+     * @param _emptyFields      number of empty fields of the positions
+     * @param _positions        number of positions
+     * @param _timeLimitMillis  the time limit of every search in milliseconds
+     * @param _seed             seed of the random positions, the same seed gives the same positions
+     * @return                  playouts per second of all searches
+     */
+    private static double playoutsPerSecond(MonteCarloTreeSearch _search, int _emptyFields, int _positions,
+                                            long _timeLimitMillis, long _seed)
+    {
+        Random random = new Random(_seed);
+        int[] moves = new int[Board.BOARD_SIZE];
+        long playouts = 0;
+        double seconds = 0;
+
+        for(int position = 0; position < _positions; position++)
+        {
+            Board board = new Board();
+            while(board.getAvailableMovesCount() > _emptyFields)
+                board.makeMove(moves[random.nextInt(board.getAvailableMoves(moves))]);
+            if(board.isOutcomeDecided()) continue;
+
+            _search.search(board.getTurn(), board, _timeLimitMillis);
+            playouts += _search.getPlayouts();
+            seconds += _search.getPlayouts() / Math.max(_search.getPlayoutsPerSecond(), 1e-9);
+        }
+
+        return playouts / Math.max(seconds, 1e-9);
+    }
+
+    /**
+     * Executable method to run the benchmark.
+     * @param args String array main args: [positions] [time limit in milliseconds] [seed] [highest threads]
+     */
+    public static void main(String[] args)
+    {
+        int positions = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        long timeLimitMillis = args.length > 1 ? Long.parseLong(args[1]) : 200;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+        int maxThreads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        if(maxThreads < 1) throw new IllegalArgumentException("Number of threads must be greater than 0.");
+
+        System.out.println("Searching " + positions + " random positions for " + timeLimitMillis
+                + " ms (seed " + seed + ").");
+        run(new int[] { 49, 40, 30, 20 }, positions, timeLimitMillis, seed);
+        runThreads(40, positions, timeLimitMillis, maxThreads, seed);
+    }
+}
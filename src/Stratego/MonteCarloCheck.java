@@ -0,0 +1,116 @@
+package Stratego;
+
+import AI.MonteCarloTreeSearch;
+import AI.SearchResult;
+
+import java.util.Random;
+
+/**
+ * Verification mode for the reuse of the tree of the Monte Carlo Tree Search.
+ * Two engines with the same seed search the same random position, play the same move, then the opponent
+ * replies to the first one with a move of the tree and to the second one with a symmetric or an irrelevant move
+ * equivalent to it. Both engines have to keep the same playouts in the subtree of the reply
+ * and the second one has to keep searching its tree without playing a taken field.
+ */
+public class MonteCarloCheck
+{
+    //Maximum number of nodes of the trees of the engines
+    private static final int MAX_NODES = 1 << 16;
+
+    /**
+     * MonteCarloCheck cannot be instantiated.
+     */
+    private MonteCarloCheck() {}
+
+    /**
+     * Checks the reuse of the tree after the specified number of random positions.
+     * @param _positions     number of positions to check
+     * @param _playouts      playouts of the searches before the reply
+     * @param _seed          seed of the random positions and of the engines
+     * @return               true if every equivalent reply keeps the same playouts
+     */
+    static boolean check(int _positions, int _playouts, long _seed)
+    {
+        Random random = new Random(_seed);
+        int[] moves = new int[Board.BOARD_SIZE];
+        int equivalentReplies = 0;
+
+        for(int position = 0; position < _positions; position++)
+        {
+            //half of the positions are from the start of the game, where the most boards are symmetric
+            Board board = new Board();
+            int randomMoves = random.nextInt(2) == 0 ? random.nextInt(3) : random.nextInt(Board.BOARD_SIZE - 10);
+            for(int i = 0; i < randomMoves; i++) board.makeMove(moves[random.nextInt(board.getAvailableMoves(moves))]);
+            if(board.isOutcomeDecided()) continue;
+
+            long engineSeed = random.nextLong();
+            MonteCarloTreeSearch treeEngine = new MonteCarloTreeSearch(MonteCarloTreeSearch.DEFAULT_EXPLORATION,
+                    MonteCarloTreeSearch.Playout.RANDOM, 1, MAX_NODES, engineSeed);
+            MonteCarloTreeSearch equivalentEngine = new MonteCarloTreeSearch(MonteCarloTreeSearch.DEFAULT_EXPLORATION,
+                    MonteCarloTreeSearch.Playout.RANDOM, 1, MAX_NODES, engineSeed);
+
+            SearchResult result = treeEngine.searchPlayouts(board.getTurn(), board, _playouts);
+            equivalentEngine.searchPlayouts(board.getTurn(), board, _playouts);
+            board.makeMove(result.getBestMove());
+            if(board.isOutcomeDecided()) continue;
+
+            //the reply and the move of the tree equivalent to it: the lowest irrelevant move
+            //or the lowest of its symmetric moves
+            int reply = moves[random.nextInt(board.getAvailableMoves(moves))];
+            int treeReply = reply;
+            long irrelevant = board.getIrrelevantMoves();
+            if((irrelevant & (1L << reply)) != 0) treeReply = Long.numberOfTrailingZeros(irrelevant);
+            else
+            {
+                for(int symmetries = board.getSymmetries(); symmetries != 0; symmetries &= symmetries - 1)
+                    treeReply = Math.min(treeReply,
+                            Board.getSymmetricField(reply, Integer.numberOfTrailingZeros(symmetries)));
+            }
+            if(treeReply != reply) equivalentReplies++;
+
+            Board treeBoard = board.getDeepCopy();
+            treeBoard.makeMove(treeReply);
+            Board equivalentBoard = board.getDeepCopy();
+            equivalentBoard.makeMove(reply);
+            if(treeBoard.isOutcomeDecided()) continue;
+
+            treeEngine.searchPlayouts(treeBoard.getTurn(), treeBoard, 1);
+            equivalentEngine.searchPlayouts(equivalentBoard.getTurn(), equivalentBoard, 1);
+            long kept = treeEngine.getRootVisits() - treeEngine.getPlayouts();
+            long equivalentKept = equivalentEngine.getRootVisits() - equivalentEngine.getPlayouts();
+
+            if(kept != equivalentKept)
+            {
+                System.out.println("\n" + board + "\n");
+                System.out.println("Reply:          " + reply + " (tree move " + treeReply + ")");
+                System.out.println("Kept playouts:  " + equivalentKept + " (tree move " + kept + ")");
+                return false;
+            }
+
+            //the moves of the kept tree are moves of the board of the reply
+            equivalentEngine.searchPlayouts(equivalentBoard.getTurn(), equivalentBoard, _playouts);
+        }
+
+        System.out.println(equivalentReplies + " replies were symmetric or irrelevant moves out of the tree.");
+        return true;
+    }
+
+    /**
+     * Executable method to run the verification.
+     * @param args String array main args: [number of positions] [playouts] [seed]
+     */
+    public static void main(String[] args)
+    {
+        int positions = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int playouts = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : System.nanoTime();
+
+        System.out.println("Checking " + positions + " random positions (seed " + seed + ").");
+        if(check(positions, playouts, seed)) System.out.println("All equivalent replies keep the same playouts.");
+        else
+        {
+            System.out.println("Equivalent replies keep other playouts.");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package Stratego;
+
+import AI.Algorithms;
+import AI.AlphaBetaPruningSortingMoves;
+import AI.LateMoveReductions;
+import AI.ProbCut;
+import AI.SearchResult;
+import AI.TranspositionTable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Calibration of ProbCut.
+ * Plays games of the engine against itself, searches their positions to every depth and fits the regressions
+ * of the deep scores from the shallow scores, then stores them to the file loaded by ProbCut.load(String).
+ * At the end the positions of other games are searched with and without ProbCut, so the depths reached
+ * in the time of the search without ProbCut can be compared.
+ */
+public class ProbCutCalibration
+{
+    //Depth of the moves of the games of the engine against itself
+    private static final int SELF_PLAY_PLY = 2;
+    //One of this number of moves of the games is random, so the games are different
+    private static final int RANDOM_MOVE_RATE = 4;
+    //Positions are taken from the games with the numbers of empty fields between the endgame and this number
+    private static final int MAX_EMPTY_FIELDS = 44;
+    //Positions taken from every game
+    private static final int POSITIONS_PER_GAME = 3;
+    //Depth of the search without ProbCut and the deepest search with ProbCut compared after the calibration
+    private static final int COMPARED_PLY = 5;
+    private static final int COMPARED_MAX_PLY = 8;
+
+    /**
+     * ProbCutCalibration cannot be instantiated.
+     */
+    private ProbCutCalibration() {}
+
+    /**
+     * Plays games of the engine against itself and takes random positions of the middle of the games.
+     * @param _positions    number of positions
+     * @param _random       random generator of the moves and the positions
+     * @return              the positions, none of them has the decided result of the game
+     */
+    static List<Board> selfPlayPositions(int _positions, Random _random)
+    {
+        List<Board> positions = new ArrayList<>();
+        int[] moves = new int[Board.BOARD_SIZE];
+
+        while(positions.size() < _positions)
+        {
+            List<Board> game = new ArrayList<>();
+            Board board = new Board();
+            while(!board.isGameOver())
+            {
+                int emptyFields = board.getAvailableMovesCount();
+                if(emptyFields > Algorithms.ENDGAME_EMPTY_FIELDS && emptyFields <= MAX_EMPTY_FIELDS
+                        && !board.isOutcomeDecided())
+                    game.add(board.getDeepCopy());
+
+                if(_random.nextInt(RANDOM_MOVE_RATE) == 0)
+                    board.makeMove(moves[_random.nextInt(board.getAvailableMoves(moves))]);
+                else
+                    board.makeMove(new AlphaBetaPruningSortingMoves().search(board.getTurn(), board, SELF_PLAY_PLY)
+                            .getBestMove());
+            }
+
+            for(int i = 0; i < POSITIONS_PER_GAME && !game.isEmpty() && positions.size() < _positions; i++)
+                positions.add(game.remove(_random.nextInt(game.size())));
+        }
+
+        return positions;
+    }
+
+    /**
+     * Searches the positions to every depth and fits the regressions of the deep scores from the shallow scores.
+     * @param _positions        the positions
+     * @param _maxDepth         the deepest fitted depth
+     * @param _depthDifference  difference of the deep and the shallow depth
+     * @return                  rows of the regressions: deep depth, shallow depth, slope, intercept, sigma
+     */
+    static double[][] fit(List<Board> _positions, int _maxDepth, int _depthDifference)
+    {
+        //scores in the perspective of the player to move, every search gets a new engine
+        int[][] scores = new int[_positions.size()][_maxDepth + 1];
+        for(int position = 0; position < _positions.size(); position++)
+        {
+            Board board = _positions.get(position);
+            for(int depth = 1; depth <= _maxDepth; depth++)
+                scores[position][depth] = new AlphaBetaPruningSortingMoves().search(board.getTurn(), board, depth)
+                        .getScore();
+        }
+
+        System.out.println("deep  shallow     slope  intercept     sigma  correlation");
+        List<double[]> parameters = new ArrayList<>();
+        for(int depth = _depthDifference + 1; depth <= _maxDepth; depth++)
+        {
+            int shallowDepth = depth - _depthDifference;
+            double n = _positions.size();
+            double sumShallow = 0, sumDeep = 0, sumShallow2 = 0, sumDeep2 = 0, sumProducts = 0;
+            for(int[] positionScores : scores)
+            {
+                double shallow = positionScores[shallowDepth];
+                double deep = positionScores[depth];
+                sumShallow += shallow;
+                sumDeep += deep;
+                sumShallow2 += shallow * shallow;
+                sumDeep2 += deep * deep;
+                sumProducts += shallow * deep;
+            }
+
+            //least squares of deep = slope * shallow + intercept
+            double varianceShallow = sumShallow2 - sumShallow * sumShallow / n;
+            double varianceDeep = sumDeep2 - sumDeep * sumDeep / n;
+            double covariance = sumProducts - sumShallow * sumDeep / n;
+            if(varianceShallow <= 0 || covariance <= 0) continue;
+
+            double slope = covariance / varianceShallow;
+            double intercept = (sumDeep - slope * sumShallow) / n;
+
+            double sumErrors2 = 0;
+            for(int[] positionScores : scores)
+            {
+                double error = positionScores[depth] - slope * positionScores[shallowDepth] - intercept;
+                sumErrors2 += error * error;
+            }
+            double sigma = Math.sqrt(sumErrors2 / Math.max(n - 2, 1));
+
+            System.out.println(String.format("%4d  %7d  %8.4f  %9.4f  %8.4f  %11.4f", depth, shallowDepth, slope,
+                    intercept, sigma, covariance / Math.sqrt(varianceShallow * Math.max(varianceDeep, 1e-9))));
+            parameters.add(new double[] { depth, shallowDepth, slope, intercept, sigma });
+        }
+
+        return parameters.toArray(new double[0][]);
+    }
+
+    /**
+     * Searches the positions without ProbCut to the specified depth and one ply deeper and with ProbCut
+     * to the depths from the specified one, then prints the time and the nodes of the searches
+     * and how often ProbCut gets the same score as the search without it to the same depth.
+     * @param _positions    the positions
+     * @param _probCut      the calibrated ProbCut
+     * @param _ply          the depth of the search without ProbCut
+     * @param _maxPly       the deepest search with ProbCut
+     */
+    static void compare(List<Board> _positions, ProbCut _probCut, int _ply, int _maxPly)
+    {
+        int[][] plainScores = new int[_positions.size()][2];
+
+        System.out.println("engine    depth    avg ms     avg nodes   cut offs  same score");
+        for(int pruned = 0; pruned < 2; pruned++)
+            for(int ply = _ply; ply <= (pruned == 1 ? _maxPly : _ply + 1); ply++)
+            {
+                long time = 0;
+                long nodes = 0;
+                long cuts = 0;
+                int sameScores = 0;
+
+                for(int position = 0; position < _positions.size(); position++)
+                {
+                    Board board = _positions.get(position);
+                    AlphaBetaPruningSortingMoves engine = new AlphaBetaPruningSortingMoves(
+                            TranspositionTable.DEFAULT_SIZE_MB, LateMoveReductions.NONE,
+                            pruned == 1 ? _probCut : ProbCut.NONE);
+
+                    long start = System.nanoTime();
+                    SearchResult result = engine.search(board.getTurn(), board, ply);
+                    time += System.nanoTime() - start;
+                    nodes += result.getNodes();
+                    cuts += engine.getProbCuts();
+
+                    if(pruned == 0) plainScores[position][ply - _ply] = result.getScore();
+                    else if(ply <= _ply + 1 && plainScores[position][ply - _ply] == result.getScore()) sameScores++;
+                }
+
+                System.out.println(String.format("%-8s  %5d  %8.2f  %12d  %9s  %10s",
+                        pruned == 1 ? "ProbCut" : "plain", ply, time / 1e6 / _positions.size(),
+                        nodes / _positions.size(), pruned == 1 ? cuts : "", pruned == 1 && ply <= _ply + 1
+                        ? String.format("%.1f%%", 100.0 * sameScores / _positions.size()) : ""));
+            }
+    }
+
+    /**
+     * Executable method to run the calibration.
+     * @param args String array main args: [positions] [deepest depth] [depth difference] [threshold]
+     *             [file] [seed]
+     * @throws IOException  if the file can't be written
+     */
+    public static void main(String[] args) throws IOException
+    {
+        int positions = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int maxDepth = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int depthDifference = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        double threshold = args.length > 3 ? Double.parseDouble(args[3]) : ProbCut.DEFAULT_THRESHOLD;
+        String file = args.length > 4 ? args[4] : "probcut.properties";
+        long seed = args.length > 5 ? Long.parseLong(args[5]) : System.nanoTime();
+
+        if(depthDifference < 1 || depthDifference >= maxDepth)
+            throw new IllegalArgumentException("Depth difference must be between 1 and the deepest depth - 1.");
+
+        Random random = new Random(seed);
+        System.out.println("Fitting ProbCut to " + positions + " positions of self-play games (seed " + seed + ").");
+        ProbCut probCut = new ProbCut(threshold, fit(selfPlayPositions(positions, random), maxDepth, depthDifference));
+        probCut.save(file);
+        System.out.println("Saved to " + file + ".");
+
+        compare(selfPlayPositions(Math.max(positions / 10, 1), random), probCut, COMPARED_PLY, COMPARED_MAX_PLY);
+    }
+}
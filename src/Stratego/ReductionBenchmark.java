@@ -0,0 +1,131 @@
+package Stratego;
+
+import AI.AlphaBetaPruningPVS;
+import AI.AlphaBetaPruningSortingMoves;
+import AI.LateMoveReductions;
+import AI.SearchResult;
+import AI.TranspositionTable;
+
+import java.util.Random;
+
+/**
+ * Benchmark of the late move reductions.
+ * Searches random positions with and without the reductions and prints the nodes of both searches,
+ * how often the reduced moves are searched again and how often the reduced search plays another move
+ * or gets another score, so the table of the reductions can be tuned against the search without them.
+ */
+public class ReductionBenchmark
+{
+    /**
+     * ReductionBenchmark cannot be instantiated.
+     */
+    private ReductionBenchmark() {}
+
+    /**
+     * Searches the specified number of random positions with the AlphaBeta Pruning with sorting moves
+     * and with the Principal Variation Search, with and without the reductions, and prints the results.
+     * @param _reductions   the tested reductions
+     * @param _ply          the maximum depth of the searches
+     * @param _emptyFields  number of empty fields of the positions
+     * @param _positions    number of positions
+     * @param _seed         seed of the random positions
+     */
+    static void run(LateMoveReductions _reductions, int _ply, int _emptyFields, int _positions, long _seed)
+    {
+        int[] moves = new int[Board.BOARD_SIZE];
+        long[] nodes = new long[4];
+        long[] times = new long[4];
+        long[] reducedSearches = new long[2];
+        long[] researches = new long[2];
+        int[] sameMoves = new int[2];
+        long[] scoreDifferences = new long[2];
+
+        Random random = new Random(_seed);
+        for(int position = 0; position < _positions; position++)
+        {
+            Board board = new Board();
+            while(board.getAvailableMovesCount() > _emptyFields)
+                board.makeMove(moves[random.nextInt(board.getAvailableMoves(moves))]);
+            Board.State player = board.getTurn();
+
+            //every search gets new engines, so no search uses the table of another one
+            for(int engine = 0; engine < 2; engine++)
+            {
+                SearchResult[] results = new SearchResult[2];
+                for(int reduced = 0; reduced < 2; reduced++)
+                {
+                    AlphaBetaPruningSortingMoves alphaBeta = new AlphaBetaPruningSortingMoves(
+                            TranspositionTable.DEFAULT_SIZE_MB, reduced == 1 ? _reductions : LateMoveReductions.NONE);
+                    AlphaBetaPruningPVS pvs = new AlphaBetaPruningPVS(alphaBeta);
+
+                    long start = System.nanoTime();
+                    results[reduced] = engine == 0 ? alphaBeta.search(player, board, _ply)
+                            : pvs.search(player, board, _ply);
+                    times[2 * engine + reduced] += System.nanoTime() - start;
+                    nodes[2 * engine + reduced] += results[reduced].getNodes();
+
+                    if(reduced == 1)
+                    {
+                        reducedSearches[engine] += engine == 0 ? alphaBeta.getReducedSearches()
+                                : pvs.getReducedSearches();
+                        researches[engine] += engine == 0 ? alphaBeta.getResearches() : pvs.getReductionResearches();
+                    }
+                }
+
+                if(results[0].getBestMove() == results[1].getBestMove()) sameMoves[engine]++;
+                scoreDifferences[engine] += Math.abs(results[0].getScore() - results[1].getScore());
+            }
+        }
+
+        System.out.println("engine  reductions        nodes    avg ms  reduced  re-search  same move  score diff");
+        for(int engine = 0; engine < 2; engine++)
+            for(int reduced = 0; reduced < 2; reduced++)
+            {
+                int index = 2 * engine + reduced;
+                System.out.println(String.format("%-6s  %-10s  %11d  %8.2f  %7s  %9s  %9s  %10s",
+                        engine == 0 ? "AB" : "PVS", reduced == 1 ? "LMR" : "none", nodes[index],
+                        times[index] / 1e6 / _positions,
+                        reduced == 1 ? reducedSearches[engine] : "",
+                        reduced == 1 ? String.format("%.1f%%", 100.0 * researches[engine]
+                                / Math.max(reducedSearches[engine], 1)) : "",
+                        reduced == 1 ? String.format("%.1f%%", 100.0 * sameMoves[engine] / _positions) : "",
+                        reduced == 1 ? String.format("%.3f", (double)scoreDifferences[engine] / _positions) : ""));
+            }
+    }
+
+    /**
+     * Executable method to run the benchmark.
+     * @param args String array main args: [depth] [empty fields] [positions] [seed]
+     *             [full depth moves] [lowest reduced depth] [base] [divisor]
+     */
+    public static void main(String[] args)
+    {
+        int ply = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int emptyFields = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int positions = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+        int fullDepthMoves = args.length > 4 ? Integer.parseInt(args[4]) : LateMoveReductions.DEFAULT_FULL_DEPTH_MOVES;
+        int minDepth = args.length > 5 ? Integer.parseInt(args[5]) : LateMoveReductions.DEFAULT_MIN_DEPTH;
+        double base = args.length > 6 ? Double.parseDouble(args[6]) : LateMoveReductions.DEFAULT_BASE;
+        double divisor = args.length > 7 ? Double.parseDouble(args[7]) : LateMoveReductions.DEFAULT_DIVISOR;
+
+        if(emptyFields < 1 || emptyFields > Board.BOARD_SIZE)
+            throw new IllegalArgumentException("Empty fields must be between 1 and " + Board.BOARD_SIZE + ".");
+
+        LateMoveReductions reductions = new LateMoveReductions(fullDepthMoves, minDepth, base, divisor);
+        System.out.println("Searching " + positions + " random positions with " + emptyFields + " empty fields to depth "
+                + ply + " (seed " + seed + ").");
+
+        //reductions of the depths of the search
+        System.out.println("Reductions by depth and move number:");
+        for(int depth = 1; depth <= ply; depth++)
+        {
+            StringBuilder sb = new StringBuilder(String.format("%2d:", depth));
+            for(int moveNumber = 0; moveNumber < emptyFields; moveNumber++)
+                sb.append(' ').append(reductions.getReduction(depth, moveNumber));
+            System.out.println(sb);
+        }
+
+        run(reductions, ply, emptyFields, positions, seed);
+    }
+}